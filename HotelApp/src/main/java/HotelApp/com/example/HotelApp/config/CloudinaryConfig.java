@@ -7,22 +7,30 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 
 @Configuration
 public class CloudinaryConfig {
 
     // Load Cloudinary credentials from application.properties or environment variables
-    @Value("${cloudinary.cloud_name}")
+    // (may be left empty when images.store is local or memory)
+    @Value("${cloudinary.cloud_name:}")
     private String cloudName;
 
-    @Value("${cloudinary.api_key}")
+    @Value("${cloudinary.api_key:}")
     private String apiKey;
 
-    @Value("${cloudinary.api_secret}")
+    @Value("${cloudinary.api_secret:}")
     private String apiSecret;
 
+    // Where uploads are spooled before being streamed to Cloudinary
+    @Value("${uploads.spool-dir:${java.io.tmpdir}}")
+    private String spoolDir;
+
     // ----------------- CLOUDINARY BEAN -----------------
     @Bean
     public Cloudinary cloudinary() {
@@ -38,10 +46,41 @@ public class CloudinaryConfig {
     public String uploadFile(Cloudinary cloudinary, MultipartFile file) throws IOException {
         if (file == null || file.isEmpty()) return null;
 
-        Map<?, ?> uploadResult = cloudinary.uploader().upload(file.getBytes(),
-                ObjectUtils.asMap("resource_type", "auto"));
+        Map<?, ?> uploadResult = upload(cloudinary, file);
 
         return uploadResult.get("secure_url").toString();
     }
+
+    // Full upload result (secure_url, public_id, resource_type, ...) for callers that may need to delete it again.
+    // The part is spooled to a temp file and Cloudinary streams that file, so the image is never held in a byte[].
+    public Map<?, ?> upload(Cloudinary cloudinary, MultipartFile file) throws IOException {
+        File spooled = spool(file);
+        try {
+            return cloudinary.uploader().upload(spooled,
+                    ObjectUtils.asMap("resource_type", "auto"));
+        } finally {
+            Files.deleteIfExists(spooled.toPath());
+        }
+    }
+
+    // transferTo moves Tomcat's own temp file when the part is already on disk, otherwise copies it in chunks
+    private File spool(MultipartFile file) throws IOException {
+        Path dir = Path.of(spoolDir);
+        Files.createDirectories(dir);
+        File target = Files.createTempFile(dir, "upload-", ".part").toFile();
+        try {
+            Files.delete(target.toPath()); // part.write() refuses to overwrite on some containers
+            file.transferTo(target);
+            return target;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target.toPath());
+            throw e;
+        }
+    }
+
+    // ----------------- DELETE -----------------
+    public void delete(Cloudinary cloudinary, String publicId, String resourceType) throws IOException {
+        cloudinary.uploader().destroy(publicId, ObjectUtils.asMap("resource_type", resourceType));
+    }
 }
 
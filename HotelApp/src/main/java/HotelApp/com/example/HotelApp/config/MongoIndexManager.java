@@ -0,0 +1,171 @@
+package HotelApp.com.example.HotelApp.config;
+
+import HotelApp.com.example.HotelApp.model.Booking;
+import HotelApp.com.example.HotelApp.model.BookingArchive;
+import HotelApp.com.example.HotelApp.model.ImageAsset;
+import HotelApp.com.example.HotelApp.model.JobLease;
+import HotelApp.com.example.HotelApp.model.Room;
+import HotelApp.com.example.HotelApp.model.User;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Creates the indexes declared on the @Document models (background builds) and then explains
+ * the queries our repositories and services run, so a plan that falls back to COLLSCAN, or for a
+ * sorted query to an in-memory SORT, is reported at startup instead of showing up as slow requests.
+ * Set mongo.indexes.fail-on-collscan=true to refuse to start in that case.
+ */
+@Component
+@RequiredArgsConstructor
+public class MongoIndexManager {
+
+    private static final List<Class<?>> INDEXED_DOCUMENTS =
+            List.of(Booking.class, BookingArchive.class, Room.class, User.class, ImageAsset.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${mongo.indexes.fail-on-collscan:false}")
+    private boolean failOnCollscan;
+
+    // sort is null for unsorted queries
+    private record Probe(String name, Class<?> entity, Document filter, Document sort) {
+
+        Probe(String name, Class<?> entity, Document filter) {
+            this(name, entity, filter, null);
+        }
+    }
+
+    // Indexes replaced by a differently-keyed one (so not dropped by createIndex), and why
+    private record Retired(Class<?> entity, String name) {}
+
+    private static final List<Retired> RETIRED_INDEXES = List.of(
+            // TTL that deleted released leases and reset their fencing token (see JobLease)
+            new Retired(JobLease.class, "expiresAt"),
+            // Superseded by roomId_leavingDate_id, which also serves the history keyset sort
+            new Retired(BookingArchive.class, "roomId_leavingDate"));
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void bootstrap() {
+        dropRetiredIndexes();
+        createIndexes();
+        verifyQueryPlans();
+    }
+
+    // ----------------- DROP -----------------
+    private void dropRetiredIndexes() {
+        for (Retired retired : RETIRED_INDEXES) {
+            try {
+                boolean present = mongoTemplate.indexOps(retired.entity()).getIndexInfo().stream()
+                        .anyMatch(index -> retired.name().equals(index.getName()));
+                if (present) mongoTemplate.indexOps(retired.entity()).dropIndex(retired.name());
+            } catch (RuntimeException e) {
+                System.out.println("Could not drop index " + retired.name() + " on "
+                        + mongoTemplate.getCollectionName(retired.entity()) + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // ----------------- CREATE -----------------
+    private void createIndexes() {
+        IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> type : INDEXED_DOCUMENTS) {
+            for (IndexDefinition index : resolver.resolveIndexFor(type)) {
+                try {
+                    mongoTemplate.indexOps(type).createIndex(index);
+                } catch (RuntimeException e) {
+                    // e.g. existing duplicates block a unique index; the app still works, just slower
+                    System.out.println("Could not create index " + index.getIndexKeys() + " on "
+                            + mongoTemplate.getCollectionName(type) + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // ----------------- VERIFY -----------------
+    private void verifyQueryPlans() {
+        String id = new ObjectId().toHexString();
+        String otherId = new ObjectId().toHexString();
+        Date now = new Date();
+
+        List<Probe> probes = List.of(
+                new Probe("BookingRepository.findByUserId", Booking.class, new Document("userId", id)),
+                new Probe("BookingRepository.findByRoomId", Booking.class, new Document("roomId", id)),
+                new Probe("SellerBookingService bookings", Booking.class,
+                        new Document("roomId", new Document("$in", List.of(id)))),
+                new Probe("BookingArchiver expired bookings", Booking.class,
+                        new Document("leavingDate", new Document("$lt", now))),
+                new Probe("BookingArchiveRepository.findByUserId", BookingArchive.class, new Document("userId", id)),
+                new Probe("SellerBookingService history", BookingArchive.class,
+                        new Document("roomId", new Document("$in", List.of(id)))),
+                new Probe("RoomRepository.findBySellerId", Room.class, new Document("sellerId", id)),
+                new Probe("UserRepository.findByEmail", User.class, new Document("email", "probe@example.com")),
+                new Probe("ImageAssetService release by url", ImageAsset.class,
+                        new Document("url", "https://example.com/probe.jpg")),
+                // Keyset pages: the sort must come from the index, or every page sorts the whole match in memory
+                new Probe("RoomCatalogService page by price", Room.class,
+                        new Document("price", new Document("$ne", null)),
+                        new Document("price", 1).append("_id", 1)),
+                new Probe("RoomCatalogService page by _id", Room.class, new Document(), new Document("_id", -1)),
+                new Probe("SellerBookingService history page", BookingArchive.class,
+                        new Document("roomId", new Document("$in", List.of(id, otherId))),
+                        new Document("leavingDate", -1).append("_id", -1))
+        );
+
+        List<String> collscans = new ArrayList<>();
+        for (Probe probe : probes) {
+            String collection = mongoTemplate.getCollectionName(probe.entity());
+            Document find = new Document("find", collection).append("filter", probe.filter());
+            if (probe.sort() != null) find.append("sort", probe.sort());
+            Document command = new Document("explain", find).append("verbosity", "queryPlanner");
+            try {
+                Document explain = mongoTemplate.getDb().runCommand(command);
+                Object winningPlan = ((Document) explain.get("queryPlanner")).get("winningPlan");
+                if (containsStage(winningPlan, "COLLSCAN")) {
+                    collscans.add(probe.name() + " (" + collection + ")");
+                } else if (probe.sort() != null && containsStage(winningPlan, "SORT")) {
+                    collscans.add(probe.name() + " (" + collection + ", in-memory SORT)");
+                }
+            } catch (RuntimeException e) {
+                System.out.println("Could not explain " + probe.name() + ": " + e.getMessage());
+            }
+        }
+
+        if (collscans.isEmpty()) {
+            System.out.println("Mongo index check: all " + probes.size() + " query plans use an index.");
+            return;
+        }
+        String message = "Mongo index check: COLLSCAN or in-memory SORT plans for " + String.join(", ", collscans);
+        if (failOnCollscan) throw new IllegalStateException(message);
+        System.out.println("WARNING " + message);
+    }
+
+    // Walks the plan tree (inputStage / inputStages / queryPlan for slot-based plans)
+    private static boolean containsStage(Object node, String stage) {
+        if (node instanceof Document doc) {
+            if (stage.equals(doc.get("stage"))) return true;
+            for (Object child : doc.values()) {
+                if (containsStage(child, stage)) return true;
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object child : list) {
+                if (containsStage(child, stage)) return true;
+            }
+        }
+        return false;
+    }
+}
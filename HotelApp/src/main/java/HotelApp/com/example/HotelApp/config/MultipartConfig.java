@@ -0,0 +1,40 @@
+package HotelApp.com.example.HotelApp.config;
+
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.MultipartConfigFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Multipart limits for image uploads. Parts larger than uploads.multipart.file-size-threshold are written
+ * to disk by the container as they arrive, so a request holds at most that much of each file in memory;
+ * CloudinaryConfig then streams the file from disk.
+ * Replaces Spring Boot's spring.servlet.multipart.* defaults (1MB per file, 10MB per request).
+ */
+@Configuration
+public class MultipartConfig {
+
+    @Value("${uploads.multipart.file-size-threshold:256KB}")
+    private DataSize fileSizeThreshold;
+
+    @Value("${uploads.multipart.max-file-size:20MB}")
+    private DataSize maxFileSize;
+
+    @Value("${uploads.multipart.max-request-size:200MB}")
+    private DataSize maxRequestSize;
+
+    @Value("${uploads.spool-dir:${java.io.tmpdir}}")
+    private String location;
+
+    @Bean
+    public MultipartConfigElement multipartConfigElement() {
+        MultipartConfigFactory factory = new MultipartConfigFactory();
+        factory.setFileSizeThreshold(fileSizeThreshold);
+        factory.setMaxFileSize(maxFileSize);
+        factory.setMaxRequestSize(maxRequestSize);
+        factory.setLocation(location);
+        return factory.createMultipartConfig();
+    }
+}
@@ -0,0 +1,24 @@
+package HotelApp.com.example.HotelApp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Async settings for the /api/stream/* endpoints. Spring MVC writes a returned Flux through an async
+ * response: it requests one element, writes it on the applicationTaskExecutor (see ThreadingConfig), then
+ * requests the next, so a slow client slows the Mongo cursor instead of growing a buffer.
+ * The request timeout replaces the container default (30s), which would cut off large exports.
+ */
+@Configuration
+public class StreamingConfig implements WebMvcConfigurer {
+
+    @Value("${streams.async-timeout-ms:600000}")
+    private long asyncTimeoutMs;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncTimeoutMs);
+    }
+}
@@ -0,0 +1,73 @@
+package HotelApp.com.example.HotelApp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.ThreadPoolTaskExecutorCustomizer;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread model on top of Spring Boot's own switch, spring.threads.virtual.enabled: with it set on a Java 21+
+ * runtime Boot runs Tomcat, @Scheduled jobs and the applicationTaskExecutor (MVC async / streaming responses)
+ * on virtual threads; on older runtimes Boot ignores it. This class only adds:
+ * - platform-mode pool defaults that differ from Boot's, applied through Boot's customizers so spring.task.*
+ *   still wins: 4 scheduler threads (not 1, so a long archiver run cannot delay other jobs) and a bounded
+ *   16-thread / 500-slot async pool (not an unbounded queue);
+ * - ioThreadFactory() for services that keep their own bounded pool (e.g. image uploads);
+ * - VirtualThreadPinningMonitor, active in virtual mode only.
+ *
+ * Only the platform pools have been measured (ThreadModeLoadSimulation, Java 17): on Java 17 the lever for
+ * upload-heavy traffic is server.tomcat.threads.max. Virtual mode has not been load-tested against them; run the
+ * simulation on Java 21 before enabling it in production.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    private final boolean virtual;
+
+    public ThreadingConfig(Environment environment) {
+        this.virtual = Threading.VIRTUAL.isActive(environment);
+        if (!virtual && environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            System.out.println("WARNING spring.threads.virtual.enabled needs Java 21+, running on " + Runtime.version()
+                    + "; using platform threads.");
+        }
+        System.out.println("Thread mode: " + (virtual ? "virtual" : "platform") + ".");
+    }
+
+    // ----------------- PLATFORM POOL DEFAULTS -----------------
+    @Bean
+    public ThreadPoolTaskSchedulerCustomizer schedulerPoolSize(@Value("${spring.task.scheduling.pool.size:4}") int size) {
+        return scheduler -> scheduler.setPoolSize(size);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutorCustomizer asyncPoolSize(@Value("${spring.task.execution.pool.core-size:16}") int coreSize,
+                                                         @Value("${spring.task.execution.pool.max-size:16}") int maxSize,
+                                                         @Value("${spring.task.execution.pool.queue-capacity:500}") int queueCapacity) {
+        return executor -> {
+            executor.setCorePoolSize(coreSize);
+            executor.setMaxPoolSize(maxSize);
+            executor.setQueueCapacity(queueCapacity);
+        };
+    }
+
+    // ----------------- BLOCKING I/O POOLS -----------------
+    // For services that keep their own bounded pool (e.g. image uploads): the bound stays, the threads get cheap
+    public ThreadFactory ioThreadFactory(String prefix) {
+        if (virtual) {
+            return new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory();
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
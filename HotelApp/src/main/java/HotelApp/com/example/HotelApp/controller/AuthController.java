@@ -520,25 +520,49 @@
 
 package HotelApp.com.example.HotelApp.controller;
 
-import HotelApp.com.example.HotelApp.config.CloudinaryConfig;
 import HotelApp.com.example.HotelApp.dto.*;
-import HotelApp.com.example.HotelApp.security.JwtUtils;
+import HotelApp.com.example.HotelApp.security.AuthenticatedUser;
 import HotelApp.com.example.HotelApp.service.AuthService;
-import com.cloudinary.Cloudinary;
+import HotelApp.com.example.HotelApp.service.CollectionVersions;
+import HotelApp.com.example.HotelApp.service.CollectionVersions.Versioned;
+import HotelApp.com.example.HotelApp.service.ImageAssetService;
+import HotelApp.com.example.HotelApp.service.ImageIngestionService;
+import HotelApp.com.example.HotelApp.service.ReactiveListingService;
+import HotelApp.com.example.HotelApp.service.RoomAvailabilityIndex;
+import HotelApp.com.example.HotelApp.service.RoomCalendarService;
+import HotelApp.com.example.HotelApp.service.RoomCatalogService;
+import HotelApp.com.example.HotelApp.service.RoomSearchIndex;
+import HotelApp.com.example.HotelApp.service.SellerBookingService;
+import HotelApp.com.example.HotelApp.storage.ImageStore;
+import HotelApp.com.example.HotelApp.storage.StoredImage;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import jakarta.servlet.http.Cookie;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.web.server.ResponseStatusException;
-
-import java.util.ArrayList;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -548,15 +572,33 @@ import java.util.List;
 public class AuthController {
 
     private final AuthService authService;
-    private final JwtUtils jwtUtils;
-    private final CloudinaryConfig cloudinaryConfig;
-    private final Cloudinary cloudinary;
+    private final RoomCatalogService roomCatalogService;
+    private final RoomSearchIndex roomSearchIndex;
+    private final RoomAvailabilityIndex roomAvailabilityIndex;
+    private final RoomCalendarService roomCalendarService;
+    private final SellerBookingService sellerBookingService;
+    private final ImageIngestionService imageIngestionService;
+    private final ImageStore imageStore;
+    private final ImageAssetService imageAssetService;
+    private final ReactiveListingService reactiveListingService;
+    private final JsonEnvelopeStreamer jsonEnvelopeStreamer;
+    private final PayloadCache payloadCache;
+    private final CollectionVersions collectionVersions;
 
     // ------------------- SIGNUP -------------------
     @PostMapping("/auth/register")
     public ResponseEntity<ApiResponseDTO<UserResponseDTO>> register(@Validated @RequestBody UserRequestDTO dto) {
-        UserResponseDTO user = authService.register(dto);
-        return ResponseEntity.ok(new ApiResponseDTO<>(true, "Registration successful", user));
+        try {
+            UserResponseDTO user = authService.register(dto);
+            return ResponseEntity.ok(new ApiResponseDTO<>(true, "Registration successful", user));
+
+        } catch (ResponseStatusException e) {
+            // 409 for a taken email, 503 + Retry-After when the password hashing pool is saturated
+            return ResponseEntity
+                    .status(e.getStatusCode())
+                    .headers(e.getHeaders())
+                    .body(new ApiResponseDTO<>(false, e.getReason(), null));
+        }
     }
 
     // ------------------- LOGIN -------------------
@@ -584,6 +626,12 @@ public class AuthController {
                     new ApiResponseDTO<>(true, "Login successful", "Token set in HttpOnly cookie")
             );
 
+        } catch (ResponseStatusException e) {
+            // e.g. 503 + Retry-After when the password hashing pool is saturated
+            return ResponseEntity
+                    .status(e.getStatusCode())
+                    .headers(e.getHeaders())
+                    .body(new ApiResponseDTO<>(false, e.getReason(), null));
         } catch (RuntimeException e) {
             return ResponseEntity
                     .status(HttpStatus.UNAUTHORIZED)
@@ -615,14 +663,10 @@ public class AuthController {
 
     // ------------------- GET PROFILE -------------------
     @GetMapping("/auth/profile")
-    public ResponseEntity<ApiResponseDTO<?>> getProfile(HttpServletRequest request) {
+    @ConditionalGet(value = Versioned.USERS, perUser = true)
+    public ResponseEntity<ApiResponseDTO<?>> getProfile(@AuthenticationPrincipal AuthenticatedUser principal) {
         try {
-            String token = extractTokenFromCookies(request);
-            if (token == null)
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ApiResponseDTO<>(false, "Missing token cookie", null));
-
-            String userId = jwtUtils.getUserIdFromToken(token);
+            String userId = principal.userId();
             UserResponseDTO user = authService.getProfile(userId);
             return ResponseEntity.ok(new ApiResponseDTO<>(true, "Profile fetched successfully", user));
 
@@ -635,22 +679,17 @@ public class AuthController {
     // ------------------- UPDATE PROFILE -------------------
     @PutMapping("/auth/profile")
     public ResponseEntity<ApiResponseDTO<?>> updateProfile(
-            HttpServletRequest request,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam("name") String name,
             @RequestParam(value = "password", required = false) String password,
             @RequestParam(value = "image", required = false) MultipartFile image) {
 
         try {
-            String token = extractTokenFromCookies(request);
-            if (token == null)
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ApiResponseDTO<>(false, "Missing token cookie", null));
-
-            String userId = jwtUtils.getUserIdFromToken(token);
+            String userId = principal.userId();
 
             String imageUrl = null;
             if (image != null && !image.isEmpty()) {
-                imageUrl = cloudinaryConfig.uploadFile(cloudinary, image);
+                imageUrl = imageAssetService.acquire(image).url();
             }
 
             ProfileUpdateDTO dto = new ProfileUpdateDTO();
@@ -658,7 +697,13 @@ public class AuthController {
             dto.setPassword(password);
             dto.setImage(imageUrl);
 
-            UserResponseDTO updatedUser = authService.updateProfile(userId, dto);
+            UserResponseDTO updatedUser;
+            try {
+                updatedUser = authService.updateProfile(userId, dto);
+            } catch (RuntimeException e) {
+                imageAssetService.release(imageUrl);
+                throw e;
+            }
             return ResponseEntity.ok(new ApiResponseDTO<>(true, "Profile updated successfully", updatedUser));
 
         } catch (Exception e) {
@@ -668,54 +713,55 @@ public class AuthController {
     }
 
     // ------------------- HOME -------------------
+    // Static content: built once, revalidated by ETag (see ConditionalGet)
+    private static final String STATIC_CONTENT = "static";
+
+    private static final HomeDTO HOME_DATA = new HomeDTO(
+            "Welcome to HotelApp — your trusted hotel booking companion!",
+            "Find the best hotels, book instantly, and travel with confidence.",
+            List.of(
+                    "Over 5000+ verified hotels across 50 cities",
+                    "Instant booking confirmation",
+                    "Secure payments and easy refunds",
+                    "24x7 customer support"
+            ),
+            List.of("Goa", "Manali", "Jaipur", "Shimla", "Bangalore")
+    );
+
+    // Serialised and gzipped once, then served as stored bytes (see PayloadCache)
     @GetMapping("/home")
-    public ResponseEntity<ApiResponseDTO<HomeDTO>> home() {
-
-        HomeDTO homeData = new HomeDTO(
-                "Welcome to HotelApp — your trusted hotel booking companion!",
-                "Find the best hotels, book instantly, and travel with confidence.",
-                List.of(
-                        "Over 5000+ verified hotels across 50 cities",
-                        "Instant booking confirmation",
-                        "Secure payments and easy refunds",
-                        "24x7 customer support"
-                ),
-                List.of("Goa", "Manali", "Jaipur", "Shimla", "Bangalore")
-        );
-
-        return ResponseEntity.ok(new ApiResponseDTO<>(true, "Home content fetched successfully.", homeData));
+    @ConditionalGet(shared = true, maxAgeSeconds = 300, encoded = true)
+    public ResponseEntity<byte[]> home(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return payloadCache.respond(payloadCache.get("home", STATIC_CONTENT,
+                () -> new ApiResponseDTO<>(true, "Home content fetched successfully.", HOME_DATA)), acceptEncoding);
     }
 
     // ------------------- ABOUT -------------------
-    @GetMapping("/about")
-    public ResponseEntity<ApiResponseDTO<AboutDTO>> about() {
-
-        AboutDTO aboutData = new AboutDTO(
-                "HotelApp is a modern hotel booking platform built to make your travel planning effortless. "
-                        + "From luxury resorts to budget stays, we help you discover and book the perfect place for your trip.",
-                "Providing the best hotel booking experience with simplicity and trust.",
-                "To be the most reliable platform for travelers worldwide.",
-                List.of(
-                        "Customer Satisfaction",
-                        "Transparency and Trust",
-                        "Innovation and Growth",
-                        "Commitment to Quality"
-                )
-        );
+    private static final AboutDTO ABOUT_DATA = new AboutDTO(
+            "HotelApp is a modern hotel booking platform built to make your travel planning effortless. "
+                    + "From luxury resorts to budget stays, we help you discover and book the perfect place for your trip.",
+            "Providing the best hotel booking experience with simplicity and trust.",
+            "To be the most reliable platform for travelers worldwide.",
+            List.of(
+                    "Customer Satisfaction",
+                    "Transparency and Trust",
+                    "Innovation and Growth",
+                    "Commitment to Quality"
+            )
+    );
 
-        return ResponseEntity.ok(new ApiResponseDTO<>(true, "About content fetched successfully.", aboutData));
+    @GetMapping("/about")
+    @ConditionalGet(shared = true, maxAgeSeconds = 300, encoded = true)
+    public ResponseEntity<byte[]> about(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return payloadCache.respond(payloadCache.get("about", STATIC_CONTENT,
+                () -> new ApiResponseDTO<>(true, "About content fetched successfully.", ABOUT_DATA)), acceptEncoding);
     }
 
     // ------------------- BECOME SELLER -------------------
     @PostMapping("/auth/become-seller")
-    public ResponseEntity<ApiResponseDTO<?>> becomeSeller(HttpServletRequest request) {
+    public ResponseEntity<ApiResponseDTO<?>> becomeSeller(@AuthenticationPrincipal AuthenticatedUser principal) {
         try {
-            String token = extractTokenFromCookies(request);
-            if (token == null)
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ApiResponseDTO<>(false, "Missing token cookie", null));
-
-            String userId = jwtUtils.getUserIdFromToken(token);
+            String userId = principal.userId();
             UserResponseDTO user = authService.updateRoleToSeller(userId);
             return ResponseEntity.ok(new ApiResponseDTO<>(true, "Congratulations! You are now a SELLER.", user));
 
@@ -728,7 +774,7 @@ public class AuthController {
     // ------------------- ADD ROOM -------------------
     @PostMapping("/rooms")
     public ResponseEntity<ApiResponseDTO<RoomResponseDTO>> addRoom(
-            HttpServletRequest request,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestParam("hotelName") String hotelName,
             @RequestParam("location") String location,
             @RequestParam("roomType") String roomType,
@@ -737,12 +783,7 @@ public class AuthController {
             @RequestParam(value = "images", required = false) List<MultipartFile> images) {
 
         try {
-            String token = extractTokenFromCookies(request);
-            if (token == null)
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ApiResponseDTO<>(false, "Missing token", null));
-
-            String sellerId = jwtUtils.getUserIdFromToken(token);
+            String sellerId = principal.userId();
 
             RoomRequestDTO dto = new RoomRequestDTO();
             dto.setHotelName(hotelName);
@@ -751,16 +792,17 @@ public class AuthController {
             dto.setPrice(price);
             dto.setAvailable(available);
 
-            if (images != null && !images.isEmpty()) {
-                List<String> imageUrls = new ArrayList<>();
-                for (MultipartFile file : images) {
-                    String url = cloudinaryConfig.uploadFile(cloudinary, file);
-                    imageUrls.add(url);
-                }
-                dto.setImages(imageUrls);
-            }
+            // Uploaded once, in parallel; removed again if the room cannot be saved
+            List<StoredImage> uploaded = imageIngestionService.uploadAll(images);
+            dto.setImages(ImageIngestionService.urls(uploaded));
 
-            RoomResponseDTO room = authService.addRoom(sellerId, dto);
+            RoomResponseDTO room;
+            try {
+                room = authService.addRoom(sellerId, dto);
+            } catch (RuntimeException e) {
+                imageIngestionService.release(uploaded);
+                throw e;
+            }
             return ResponseEntity.ok(new ApiResponseDTO<>(true, "Room added successfully", room));
 
         } catch (Exception e) {
@@ -772,7 +814,7 @@ public class AuthController {
     // ------------------- UPDATE ROOM -------------------
     @PutMapping("/rooms/{roomId}")
     public ResponseEntity<ApiResponseDTO<RoomResponseDTO>> updateRoom(
-            HttpServletRequest request,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable String roomId,
             @RequestParam("hotelName") String hotelName,
             @RequestParam("location") String location,
@@ -782,12 +824,7 @@ public class AuthController {
             @RequestParam(value = "images", required = false) List<MultipartFile> images) {
 
         try {
-            String token = extractTokenFromCookies(request);
-            if (token == null)
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ApiResponseDTO<>(false, "Missing token", null));
-
-            String sellerId = jwtUtils.getUserIdFromToken(token);
+            String sellerId = principal.userId();
 
             RoomRequestDTO dto = new RoomRequestDTO();
             dto.setHotelName(hotelName);
@@ -796,16 +833,16 @@ public class AuthController {
             dto.setPrice(price);
             dto.setAvailable(available);
 
-            if (images != null && !images.isEmpty()) {
-                List<String> imageUrls = new ArrayList<>();
-                for (MultipartFile file : images) {
-                    String url = cloudinaryConfig.uploadFile(cloudinary, file);
-                    imageUrls.add(url);
-                }
-                dto.setImages(imageUrls);
-            }
+            List<StoredImage> uploaded = imageIngestionService.uploadAll(images);
+            if (!uploaded.isEmpty()) dto.setImages(ImageIngestionService.urls(uploaded));
 
-            RoomResponseDTO updated = authService.updateRoom(roomId, sellerId, dto);
+            RoomResponseDTO updated;
+            try {
+                updated = authService.updateRoom(roomId, sellerId, dto);
+            } catch (RuntimeException e) {
+                imageIngestionService.release(uploaded);
+                throw e;
+            }
             return ResponseEntity.ok(new ApiResponseDTO<>(true, "Room updated successfully", updated));
 
         } catch (Exception e) {
@@ -816,14 +853,9 @@ public class AuthController {
 
     // ------------------- GET ROOMS BY SELLER -------------------
     @GetMapping("/rooms")
-    public ResponseEntity<ApiResponseDTO<List<RoomResponseDTO>>> getRooms(HttpServletRequest request) {
+    public ResponseEntity<ApiResponseDTO<List<RoomResponseDTO>>> getRooms(@AuthenticationPrincipal AuthenticatedUser principal) {
         try {
-            String token = extractTokenFromCookies(request);
-            if (token == null)
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ApiResponseDTO<>(false, "Missing token", null));
-
-            String sellerId = jwtUtils.getUserIdFromToken(token);
+            String sellerId = principal.userId();
             List<RoomResponseDTO> rooms = authService.getRoomsBySeller(sellerId);
             return ResponseEntity.ok(new ApiResponseDTO<>(true, "Rooms fetched successfully", rooms));
 
@@ -836,15 +868,10 @@ public class AuthController {
     // ------------------- DELETE ROOM -------------------
     @DeleteMapping("/rooms/{roomId}")
     public ResponseEntity<ApiResponseDTO<String>> deleteRoom(
-            HttpServletRequest request,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable String roomId) {
         try {
-            String token = extractTokenFromCookies(request);
-            if (token == null)
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ApiResponseDTO<>(false, "Missing token", null));
-
-            String sellerId = jwtUtils.getUserIdFromToken(token);
+            String sellerId = principal.userId();
             authService.deleteRoom(roomId, sellerId);
             return ResponseEntity.ok(new ApiResponseDTO<>(true, "Room deleted successfully", null));
 
@@ -856,15 +883,14 @@ public class AuthController {
 
     // ------------------- GET ALL ROOMS -------------------
     @GetMapping("/all-rooms")
-    public ResponseEntity<ApiResponseDTO<List<RoomResponseDTO>>> getAllRooms(HttpServletRequest request) {
+    @ConditionalGet(value = Versioned.ROOMS, encoded = true)
+    public ResponseEntity<?> getAllRooms(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            String token = extractTokenFromCookies(request);
-            if (token == null)
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ApiResponseDTO<>(false, "Missing token", null));
-
-            List<RoomResponseDTO> allRooms = authService.getAllRooms();
-            return ResponseEntity.ok(new ApiResponseDTO<>(true, "All rooms fetched successfully", allRooms));
+            // Catalog snapshot: serialised once per rooms version, shared by every caller until the next change
+            CollectionVersions.Stamp rooms = collectionVersions.current(Versioned.ROOMS);
+            PayloadCache.Payload snapshot = payloadCache.get("all-rooms", rooms != null ? rooms.version() : null,
+                    () -> new ApiResponseDTO<>(true, "All rooms fetched successfully", authService.getAllRooms()));
+            return payloadCache.respond(snapshot, acceptEncoding);
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -872,19 +898,128 @@ public class AuthController {
         }
     }
 
+    // ------------------- GET ALL ROOMS (PAGED) -------------------
+    @GetMapping("/all-rooms/page")
+    public ResponseEntity<ApiResponseDTO<RoomPageDTO>> getAllRoomsPage(
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        try {
+            RoomPageDTO page = roomCatalogService.getRoomsPage(sort, limit, cursor);
+            return ResponseEntity.ok(new ApiResponseDTO<>(true, "Rooms page fetched successfully", page));
+
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponseDTO<>(false, "Failed to fetch rooms page: " + e.getMessage(), null));
+        }
+    }
+
+    // ------------------- SEARCH ROOMS -------------------
+    @GetMapping("/rooms/search")
+    public ResponseEntity<ApiResponseDTO<List<RoomResponseDTO>>> searchRooms(
+            @RequestParam(value = "location", required = false) String location,
+            @RequestParam(value = "roomType", required = false) String roomType,
+            @RequestParam(value = "minPrice", required = false) Double minPrice,
+            @RequestParam(value = "maxPrice", required = false) Double maxPrice,
+            @RequestParam(value = "available", required = false, defaultValue = "true") boolean onlyAvailable,
+            @RequestParam(value = "limit", required = false, defaultValue = "50") int limit) {
+        try {
+            int cappedLimit = Math.max(1, Math.min(limit, 200));
+            List<RoomResponseDTO> rooms = roomSearchIndex.search(location, roomType, minPrice, maxPrice, onlyAvailable, cappedLimit);
+            return ResponseEntity.ok(new ApiResponseDTO<>(true, "Rooms searched successfully", rooms));
+
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponseDTO<>(false, "Failed to search rooms: " + e.getMessage(), null));
+        }
+    }
+
+    // ------------------- AVAILABLE ROOMS FOR DATES -------------------
+    @GetMapping("/rooms/available")
+    public ResponseEntity<ApiResponseDTO<List<RoomResponseDTO>>> getAvailableRooms(
+            @RequestParam("location") String location,
+            @RequestParam("checkIn") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam("checkOut") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+            @RequestParam(value = "roomType", required = false) String roomType,
+            @RequestParam(value = "limit", required = false, defaultValue = "50") int limit) {
+        try {
+            if (checkOut.isBefore(checkIn))
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(new ApiResponseDTO<>(false, "checkOut must not be before checkIn", null));
+
+            int cappedLimit = Math.max(1, Math.min(limit, 200));
+            List<RoomResponseDTO> rooms = roomSearchIndex.search(location, roomType, null, null, true, cappedLimit,
+                    roomId -> roomAvailabilityIndex.isFree(roomId, checkIn, checkOut));
+            return ResponseEntity.ok(new ApiResponseDTO<>(true, "Available rooms fetched successfully", rooms));
+
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponseDTO<>(false, "Failed to fetch available rooms: " + e.getMessage(), null));
+        }
+    }
+
+    // ------------------- ROOM CALENDAR -------------------
+    @GetMapping("/rooms/{roomId}/calendar")
+    public ResponseEntity<ApiResponseDTO<RoomCalendarDTO>> getRoomCalendar(
+            @PathVariable String roomId,
+            @RequestParam(value = "month", required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        try {
+            RoomCalendarDTO calendar = roomCalendarService.getMonth(roomId, month != null ? month : YearMonth.now());
+            return ResponseEntity.ok(new ApiResponseDTO<>(true, "Room calendar fetched successfully", calendar));
+
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponseDTO<>(false, "Failed to fetch room calendar: " + e.getMessage(), null));
+        }
+    }
+
+    // ------------------- SERVE IMAGE -------------------
+    // Images from the local/memory ImageStore. Keys are content hashes, so responses never change.
+    @GetMapping("/images/{key}")
+    public void getImage(@PathVariable String key, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Resource image = imageStore.load(key);
+        if (image == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = image.contentLength();
+        response.setContentType(MediaTypeFactory.getMediaType(key).orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(length);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable");
+
+        if (!image.isFile()) {
+            try (InputStream in = image.getInputStream()) {
+                in.transferTo(response.getOutputStream());
+            }
+            return;
+        }
+
+        Path path = image.getFile().toPath();
+        // Tomcat's NIO connector can sendfile() the file itself once the handler returns
+        if (Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            request.setAttribute("org.apache.tomcat.sendfile.filename", path.toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", 0L);
+            request.setAttribute("org.apache.tomcat.sendfile.end", length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < length) {
+                position += channel.transferTo(position, length - position, out);
+            }
+        }
+    }
+
     // ------------------- CREATE BOOKING -------------------
     @PostMapping("/bookings")
     public ResponseEntity<ApiResponseDTO<BookingResponseDTO>> createBooking(
-            HttpServletRequest request,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @RequestBody BookingRequestDTO dto) {
 
         try {
-            String token = extractTokenFromCookies(request);
-            if (token == null)
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ApiResponseDTO<>(false, "Missing token", null));
-
-            String userId = jwtUtils.getUserIdFromToken(token);
+            String userId = principal.userId();
 
             BookingResponseDTO booking = authService.createBooking(userId, dto);
             return ResponseEntity.ok(new ApiResponseDTO<>(true, "Booking created successfully", booking));
@@ -897,14 +1032,10 @@ public class AuthController {
 
     // ------------------- GET BOOKINGS BY USER -------------------
     @GetMapping("/bookings")
-    public ResponseEntity<ApiResponseDTO<List<BookingResponseDTO>>> getUserBookings(HttpServletRequest request) {
+    @ConditionalGet(value = {Versioned.BOOKINGS, Versioned.ROOMS}, perUser = true)
+    public ResponseEntity<ApiResponseDTO<List<BookingResponseDTO>>> getUserBookings(@AuthenticationPrincipal AuthenticatedUser principal) {
         try {
-            String token = extractTokenFromCookies(request);
-            if (token == null)
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ApiResponseDTO<>(false, "Missing token", null));
-
-            String userId = jwtUtils.getUserIdFromToken(token);
+            String userId = principal.userId();
 
             List<BookingResponseDTO> bookings = authService.getBookingsByUser(userId);
             return ResponseEntity.ok(new ApiResponseDTO<>(true, "User bookings fetched successfully", bookings));
@@ -918,15 +1049,10 @@ public class AuthController {
     // ------------------- DELETE BOOKING -------------------
     @DeleteMapping("/bookings/{bookingId}")
     public ResponseEntity<ApiResponseDTO<String>> deleteBooking(
-            HttpServletRequest request,
+            @AuthenticationPrincipal AuthenticatedUser principal,
             @PathVariable String bookingId) {
         try {
-            String token = extractTokenFromCookies(request);
-            if (token == null)
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ApiResponseDTO<>(false, "Missing token", null));
-
-            String userId = jwtUtils.getUserIdFromToken(token);
+            String userId = principal.userId();
 
             authService.deleteBooking(userId, bookingId);
             return ResponseEntity.ok(new ApiResponseDTO<>(true, "Booking cancelled successfully", null));
@@ -943,14 +1069,10 @@ public class AuthController {
 
     // ------------------- GET SELLER BOOKINGS -------------------
     @GetMapping("/seller/bookings")
-    public ResponseEntity<ApiResponseDTO<List<SellerBookingDTO>>> getSellerBookings(HttpServletRequest request) {
+    @ConditionalGet(value = {Versioned.BOOKINGS, Versioned.ROOMS}, perUser = true)
+    public ResponseEntity<ApiResponseDTO<List<SellerBookingDTO>>> getSellerBookings(@AuthenticationPrincipal AuthenticatedUser principal) {
         try {
-            String token = extractTokenFromCookies(request);
-            if (token == null)
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ApiResponseDTO<>(false, "Missing token", null));
-
-            String sellerId = jwtUtils.getUserIdFromToken(token);
+            String sellerId = principal.userId();
             List<SellerBookingDTO> bookings = authService.getBookingsForSeller(sellerId);
 
             return ResponseEntity.ok(new ApiResponseDTO<>(true, "Seller bookings fetched successfully", bookings));
@@ -960,17 +1082,30 @@ public class AuthController {
         }
     }
 
+    // ------------------- GET SELLER BOOKINGS (PAGED) -------------------
+    @GetMapping("/seller/bookings/page")
+    public ResponseEntity<ApiResponseDTO<CursorPageDTO<SellerBookingDTO>>> getSellerBookingsPage(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        try {
+            String sellerId = principal.userId();
+            CursorPageDTO<SellerBookingDTO> page = sellerBookingService.getBookingsPage(sellerId, from, to, limit, cursor);
+
+            return ResponseEntity.ok(new ApiResponseDTO<>(true, "Seller bookings fetched successfully", page));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponseDTO<>(false, "Failed to fetch seller bookings: " + e.getMessage(), null));
+        }
+    }
+
     // ------------------- GET ARCHIVED BOOKINGS BY USER -------------------
     @GetMapping("/bookings/archive")
-    public ResponseEntity<ApiResponseDTO<List<BookingArchiveDTO>>> getArchivedBookings(HttpServletRequest request) {
+    public ResponseEntity<ApiResponseDTO<List<BookingArchiveDTO>>> getArchivedBookings(@AuthenticationPrincipal AuthenticatedUser principal) {
         try {
-            String token = extractTokenFromCookies(request);
-            if (token == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ApiResponseDTO<>(false, "Missing token", null));
-            }
-
-            String userId = jwtUtils.getUserIdFromToken(token);
+            String userId = principal.userId();
             List<BookingArchiveDTO> archivedBookings = authService.getArchivedBookingsByUser(userId);
 
             return ResponseEntity.ok(new ApiResponseDTO<>(true, "Archived bookings fetched successfully", archivedBookings));
@@ -981,17 +1116,22 @@ public class AuthController {
         }
     }
 
+    // ------------------- EXPORT ARCHIVED BOOKINGS BY USER -------------------
+    // Same envelope as /bookings/archive, streamed from a Mongo cursor (see JsonEnvelopeStreamer)
+    @GetMapping("/bookings/archive/export")
+    public ResponseEntity<StreamingResponseBody> exportArchivedBookings(@AuthenticationPrincipal AuthenticatedUser principal) {
+        String userId = principal.userId();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonEnvelopeStreamer.stream("Archived bookings fetched successfully",
+                        () -> authService.streamArchivedBookingsByUser(userId)));
+    }
+
     // ------------------- GET SELLER BOOKING HISTORY -------------------
     @GetMapping("/seller/bookings/history")
-    public ResponseEntity<ApiResponseDTO<List<SellerBookingArchiveDTO>>> getSellerBookingHistory(HttpServletRequest request) {
+    public ResponseEntity<ApiResponseDTO<List<SellerBookingArchiveDTO>>> getSellerBookingHistory(@AuthenticationPrincipal AuthenticatedUser principal) {
         try {
-            String token = extractTokenFromCookies(request);
-            if (token == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ApiResponseDTO<>(false, "Missing token", null));
-            }
-
-            String sellerId = jwtUtils.getUserIdFromToken(token);
+            String sellerId = principal.userId();
             List<SellerBookingArchiveDTO> history = authService.getSellerBookingHistory(sellerId);
 
             return ResponseEntity.ok(new ApiResponseDTO<>(true, "Seller booking history fetched successfully", history));
@@ -1001,15 +1141,55 @@ public class AuthController {
         }
     }
 
-    // ------------------- HELPER -------------------
-    private String extractTokenFromCookies(HttpServletRequest request) {
-        if (request.getCookies() != null) {
-            for (Cookie cookie : request.getCookies()) {
-                if ("token".equals(cookie.getName())) {
-                    return cookie.getValue();
-                }
-            }
+    // ------------------- EXPORT SELLER BOOKING HISTORY -------------------
+    @GetMapping("/seller/bookings/history/export")
+    public ResponseEntity<StreamingResponseBody> exportSellerBookingHistory(@AuthenticationPrincipal AuthenticatedUser principal) {
+        String sellerId = principal.userId();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonEnvelopeStreamer.stream("Seller booking history fetched successfully",
+                        () -> sellerBookingService.streamHistory(sellerId)));
+    }
+
+    // ------------------- GET SELLER BOOKING HISTORY (PAGED) -------------------
+    @GetMapping("/seller/bookings/history/page")
+    public ResponseEntity<ApiResponseDTO<CursorPageDTO<SellerBookingArchiveDTO>>> getSellerBookingHistoryPage(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        try {
+            String sellerId = principal.userId();
+            CursorPageDTO<SellerBookingArchiveDTO> page = sellerBookingService.getHistoryPage(sellerId, from, to, limit, cursor);
+
+            return ResponseEntity.ok(new ApiResponseDTO<>(true, "Seller booking history fetched successfully", page));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponseDTO<>(false, "Failed to fetch seller booking history: " + e.getMessage(), null));
         }
-        return null;
+    }
+
+    // ------------------- STREAMING LISTS (NDJSON / SSE) -------------------
+    // One JSON object per line (application/x-ndjson, the default) or per event (Accept: text/event-stream),
+    // written as documents arrive from Mongo. No ApiResponseDTO envelope: a failure mid-stream ends the stream.
+    @GetMapping(value = "/stream/all-rooms", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<RoomResponseDTO> streamAllRooms() {
+        return reactiveListingService.streamAllRooms();
+    }
+
+    @GetMapping(value = "/stream/bookings", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<BookingResponseDTO> streamUserBookings(@AuthenticationPrincipal AuthenticatedUser principal) {
+        return reactiveListingService.streamBookingsByUser(principal.userId());
+    }
+
+    @GetMapping(value = "/stream/bookings/archive", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<BookingArchiveDTO> streamArchivedBookings(@AuthenticationPrincipal AuthenticatedUser principal) {
+        return reactiveListingService.streamArchivedBookingsByUser(principal.userId());
+    }
+
+    @GetMapping(value = "/stream/seller/bookings", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<SellerBookingDTO> streamSellerBookings(@AuthenticationPrincipal AuthenticatedUser principal) {
+        return reactiveListingService.streamBookingsForSeller(principal.userId());
     }
 }
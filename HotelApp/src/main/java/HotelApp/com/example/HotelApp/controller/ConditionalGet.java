@@ -0,0 +1,34 @@
+package HotelApp.com.example.HotelApp.controller;
+
+import HotelApp.com.example.HotelApp.service.CollectionVersions.Versioned;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET handler whose response depends only on the listed collections (and, if perUser, on the caller).
+ * ConditionalGetInterceptor derives a strong ETag from their version counters and answers a matching
+ * If-None-Match with 304 before the handler runs. No collections = static content, versioned per build.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ConditionalGet {
+
+    Versioned[] value() default {};
+
+    // Response differs per authenticated user: the user id goes into the ETag and Last-Modified is not sent
+    boolean perUser() default false;
+
+    // Cache-Control: public (shared caches may store it) instead of private
+    boolean shared() default false;
+
+    // Cache-Control max-age; 0 = no-cache, i.e. revalidate with the ETag on every use
+    int maxAgeSeconds() default 0;
+
+    // Body comes from PayloadCache in identity and gzip encodings: the gzip bytes get their own tag ("-gzip")
+    boolean encoded() default false;
+}
@@ -0,0 +1,93 @@
+package HotelApp.com.example.HotelApp.controller;
+
+import HotelApp.com.example.HotelApp.security.AuthenticatedUser;
+import HotelApp.com.example.HotelApp.service.CollectionVersions;
+import HotelApp.com.example.HotelApp.service.CollectionVersions.Versioned;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conditional GET for handlers annotated with @ConditionalGet.
+ * The ETag is built from in-memory version counters (CollectionVersions), never from the body, so a
+ * revalidation that matches is answered with 304 before the controller, service or database are touched.
+ * The version is read before the handler runs: a mutation racing the request can only make the tag
+ * older than the body (one extra download later), never newer (which would hide the change).
+ *
+ * Static content (no collections) only changes with a build, so its tag and Last-Modified come from the build time
+ * in META-INF/build-info.properties (spring-boot-maven-plugin build-info goal): every instance running the same
+ * artifact agrees, and restarts do not invalidate clients. Without build info it is served without validators.
+ */
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final CollectionVersions collectionVersions;
+    private final PayloadCache payloadCache;
+    // Epoch millis truncated to seconds (HTTP dates have second precision), -1 = no build info
+    private final long builtAt;
+
+    public ConditionalGetInterceptor(CollectionVersions collectionVersions, PayloadCache payloadCache,
+                                     ObjectProvider<BuildProperties> buildProperties) {
+        this.collectionVersions = collectionVersions;
+        this.payloadCache = payloadCache;
+        BuildProperties build = buildProperties.getIfAvailable();
+        this.builtAt = build != null && build.getTime() != null ? build.getTime().toEpochMilli() / 1000 * 1000 : -1;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method)) return true;
+        ConditionalGet conditional = method.getMethodAnnotation(ConditionalGet.class);
+        if (conditional == null) return true;
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) return true;
+
+        StringBuilder etag = new StringBuilder();
+        long lastModified = -1;
+        if (conditional.value().length == 0) {
+            if (builtAt < 0) return true;
+            etag.append('S').append(Long.toString(builtAt, 36));
+            lastModified = builtAt;
+        }
+        for (Versioned collection : conditional.value()) {
+            CollectionVersions.Stamp stamp = collectionVersions.current(collection);
+            if (stamp == null) return true; // versions not loaded yet: plain response, no validators
+            etag.append(collection.name().charAt(0)).append(stamp.version());
+            if (stamp.modifiedAt() > 0) lastModified = Math.max(lastModified, stamp.modifiedAt());
+        }
+
+        if (conditional.perUser()) {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            if (auth == null || !(auth.getPrincipal() instanceof AuthenticatedUser user)) return true;
+            etag.append('-').append(user.userId());
+            // A shared browser must not get a 304 for someone else's data on If-Modified-Since alone
+            lastModified = -1;
+        }
+
+        if (conditional.encoded()) {
+            // The 304 must carry the Vary its 200 would have
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (payloadCache.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) etag.append("-gzip");
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl(conditional).getHeaderValue());
+        return !new ServletWebRequest(request, response).checkNotModified(etag.toString(), lastModified);
+    }
+
+    private static CacheControl cacheControl(ConditionalGet conditional) {
+        CacheControl cacheControl = conditional.maxAgeSeconds() > 0
+                ? CacheControl.maxAge(conditional.maxAgeSeconds(), TimeUnit.SECONDS)
+                : CacheControl.noCache();
+        return conditional.shared() ? cacheControl.cachePublic() : cacheControl.cachePrivate();
+    }
+}
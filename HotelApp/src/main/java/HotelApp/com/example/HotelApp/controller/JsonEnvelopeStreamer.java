@@ -0,0 +1,53 @@
+package HotelApp.com.example.HotelApp.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes the usual ApiResponseDTO envelope ({"success":true,"message":...,"data":[...]}) with the data array
+ * streamed row by row from a cursor-backed Stream, through one JsonGenerator on the response output stream.
+ * Only Jackson's and Tomcat's fixed-size buffers sit between the cursor and the socket, so heap and time to
+ * first byte do not depend on how many rows there are.
+ *
+ * The body runs on an async thread and is written on an ASYNC dispatch (SecurityConfig permits both that and
+ * the ERROR dispatch). The rows are opened before anything is written, so a query that fails to open leaves
+ * the response uncommitted and Boot's /error page answers 500 (Boot's error body, not the envelope).
+ * After the first byte the status is committed: a failure mid-stream aborts the response and leaves the JSON
+ * unterminated, rather than closing it into something that looks like a complete, successful export.
+ */
+@Component
+@RequiredArgsConstructor
+public class JsonEnvelopeStreamer {
+
+    private final ObjectMapper objectMapper;
+
+    public <T> StreamingResponseBody stream(String message, Supplier<Stream<T>> rows) {
+        return out -> {
+            try (Stream<T> stream = rows.get();
+                 JsonGenerator json = objectMapper.createGenerator(out)) {
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+
+                json.writeStartObject();
+                json.writeBooleanField("success", true);
+                json.writeStringField("message", message);
+                json.writeArrayFieldStart("data");
+
+                Iterator<T> it = stream.iterator();
+                while (it.hasNext()) {
+                    json.writeObject(it.next());
+                }
+
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+        };
+    }
+}
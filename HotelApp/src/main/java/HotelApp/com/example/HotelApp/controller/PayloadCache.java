@@ -0,0 +1,144 @@
+package HotelApp.com.example.HotelApp.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialised and gzip-compressed response bodies for responses that only change with a known version:
+ * static content (/home, /about) and catalog snapshots keyed by a CollectionVersions counter (/all-rooms).
+ * Each key holds one version; the body is built, serialised and compressed once per version (one builder at a
+ * time per key). The two responses (identity and gzip) are built as ResponseEntity objects up front, which
+ * Spring only reads, so a hit allocates nothing here: it picks one by Accept-Encoding (negotiated once per
+ * distinct header value) and Spring writes its bytes. Bodies above payloads.max-bytes are served but not kept.
+ *
+ * Brotli is not offered: the JDK has no encoder for it and the native bindings are not worth a dependency here.
+ * The two encodings are different bytes, so they carry different strong ETags: for @ConditionalGet(encoded = true)
+ * handlers ConditionalGetInterceptor makes the same choice as respond() and adds "-gzip" to the gzip tag.
+ *
+ * Metrics: payloads.cache (result=hit|build).
+ */
+@Component
+public class PayloadCache {
+
+    public record Payload(Object version, ResponseEntity<byte[]> identity, ResponseEntity<byte[]> gzip) {}
+
+    private static final int MAX_ENCODING_HEADERS = 256;
+
+    private final ObjectMapper objectMapper;
+    private final ConcurrentHashMap<String, Slot> slots = new ConcurrentHashMap<>();
+    // Accept-Encoding value → gzip accepted; browsers send only a few distinct values
+    private final ConcurrentHashMap<String, Boolean> gzipAccepted = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter builds;
+
+    @Value("${payloads.max-bytes:16777216}")
+    private long maxBytes;
+
+    public PayloadCache(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.hits = Counter.builder("payloads.cache").tag("result", "hit").register(meterRegistry);
+        this.builds = Counter.builder("payloads.cache").tag("result", "build").register(meterRegistry);
+    }
+
+    // -------------------- LOOKUP --------------------
+    // version null = not known yet: build and serve without caching
+    public Payload get(String key, Object version, Supplier<?> body) {
+        if (version == null) return build(null, body);
+
+        Slot slot = slots.computeIfAbsent(key, k -> new Slot());
+        Payload payload = slot.payload;
+        if (payload != null && payload.version().equals(version)) {
+            hits.increment();
+            return payload;
+        }
+        synchronized (slot) {
+            payload = slot.payload;
+            if (payload != null && payload.version().equals(version)) {
+                hits.increment();
+                return payload;
+            }
+            payload = build(version, body);
+            if (payload.identity().getBody().length <= maxBytes) slot.payload = payload;
+            return payload;
+        }
+    }
+
+    private static final class Slot {
+        volatile Payload payload;
+    }
+
+    private Payload build(Object version, Supplier<?> body) {
+        builds.increment();
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(body.get());
+            return new Payload(version, response(identity, null), response(gzip(identity), "gzip"));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Compressed once per version, so spend the CPU on the best ratio
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            { def.setLevel(Deflater.BEST_COMPRESSION); }
+        }) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // -------------------- RESPONSE --------------------
+    public ResponseEntity<byte[]> respond(Payload payload, String acceptEncoding) {
+        return acceptsGzip(acceptEncoding) ? payload.gzip() : payload.identity();
+    }
+
+    private static ResponseEntity<byte[]> response(byte[] body, String contentEncoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(body.length)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (contentEncoding != null) response.header(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+        return response.body(body);
+    }
+
+    boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) return false;
+        Boolean accepted = gzipAccepted.get(acceptEncoding);
+        if (accepted == null) {
+            accepted = parseAcceptsGzip(acceptEncoding);
+            if (gzipAccepted.size() < MAX_ENCODING_HEADERS) gzipAccepted.put(acceptEncoding, accepted);
+        }
+        return accepted;
+    }
+
+    // gzip listed without q=0; otherwise whatever "*" says
+    static boolean parseAcceptsGzip(String acceptEncoding) {
+        Boolean star = null;
+        for (String part : acceptEncoding.split(",")) {
+            int semicolon = part.indexOf(';');
+            String coding = (semicolon < 0 ? part : part.substring(0, semicolon)).trim();
+            boolean accepted = semicolon < 0 || !part.substring(semicolon + 1).replace(" ", "").matches("q=0(\\.0*)?");
+            if (coding.equalsIgnoreCase("gzip")) return accepted;
+            if (coding.equals("*")) star = accepted;
+        }
+        return Boolean.TRUE.equals(star);
+    }
+}
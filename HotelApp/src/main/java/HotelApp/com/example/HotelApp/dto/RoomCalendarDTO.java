@@ -0,0 +1,16 @@
+package HotelApp.com.example.HotelApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomCalendarDTO {
+    private String roomId;
+    private String month;            // yyyy-MM
+    private List<Integer> bookedDays; // days of the month that are already booked
+}
@@ -0,0 +1,16 @@
+package HotelApp.com.example.HotelApp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomPageDTO {
+    private List<RoomResponseDTO> rooms;
+    private String nextCursor; // opaque token, pass back as ?cursor= for the next page
+    private boolean hasMore;
+}
@@ -2,6 +2,7 @@ package HotelApp.com.example.HotelApp.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -10,10 +11,12 @@ import java.util.Date;
 
 @Data
 @Document(collection = "bookings")
+@CompoundIndex(name = "roomId_bookingDate_leavingDate", def = "{'roomId': 1, 'bookingDate': 1, 'leavingDate': 1}", background = true)
 public class Booking {
     @Id
     private String id;
 
+    @Indexed(background = true)
     private String userId;
     private String roomId;
 
@@ -22,6 +25,7 @@ public class Booking {
     private String gender;
 
     private LocalDate bookingDate;
+    @Indexed(background = true) // archiver: leavingDate < today
     private LocalDate leavingDate;
 
     private String hotelName;
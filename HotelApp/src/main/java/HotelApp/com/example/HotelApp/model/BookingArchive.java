@@ -2,6 +2,8 @@ package HotelApp.com.example.HotelApp.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDate;
 
@@ -9,9 +11,11 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "booking_archive")
+@CompoundIndex(name = "roomId_leavingDate_id", def = "{'roomId': 1, 'leavingDate': -1, '_id': -1}", background = true) // seller history keyset
 public class BookingArchive {
     @Id
     private String id;
+    @Indexed(background = true)
     private String userId;
     private String roomId;
     private String name;
@@ -0,0 +1,21 @@
+package HotelApp.com.example.HotelApp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "collection_versions")
+public class CollectionVersion {
+    @Id
+    private String id;          // versioned collection name (ROOMS, USERS, BOOKINGS)
+
+    private long version;       // bumped on every mutation of that collection
+    private Instant updatedAt;  // time of the last bump, served as Last-Modified
+}
@@ -0,0 +1,27 @@
+package HotelApp.com.example.HotelApp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "image_assets")
+public class ImageAsset {
+    @Id
+    private String hash;        // SHA-256 of the image bytes (hex)
+
+    @Indexed(unique = true, background = true)
+    private String url;         // URL stored on rooms / profiles
+    private String storeKey;    // ImageStore key, needed to delete it
+    private long refCount;      // room image slots + profile pictures using this image
+    @Indexed(background = true)
+    private Instant updatedAt;  // last acquire/release; unreferenced assets are collected after a grace period
+    private Instant deletingAt; // tombstone: set while the sweep deletes the stored file, null otherwise
+}
@@ -0,0 +1,26 @@
+package HotelApp.com.example.HotelApp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "job_checkpoints")
+public class JobCheckpoint {
+    @Id
+    private String id;         // job name (plus shard)
+
+    private LocalDate cutoff;  // the run's "today"; a resumed run keeps the same cutoff
+    private String lastId;     // last _id fully processed in this run
+    private long processed;
+    private String status;     // "RUNNING" or "DONE"
+    private Instant updatedAt;
+    private long fencingToken; // lease token of the run that last wrote this checkpoint
+}
@@ -0,0 +1,22 @@
+package HotelApp.com.example.HotelApp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "job_leases")
+public class JobLease {
+    @Id
+    private String name;        // e.g. "booking-archiver:shard-0"
+
+    private String owner;       // instance id of the current holder
+    private long token;         // fencing token, incremented on every acquisition; never reset, so no TTL on this collection
+    private Instant expiresAt;  // lease is free once this has passed
+}
@@ -1,11 +1,14 @@
 package HotelApp.com.example.HotelApp.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import lombok.Data;
 import java.util.List;
 
 @Document(collection = "rooms")
+@CompoundIndex(name = "price_id", def = "{'price': 1, '_id': 1}", background = true) // catalog price sort
 @Data
 public class Room {
 
@@ -19,6 +22,7 @@ public class Room {
     private List<String> images;
     private Double price;
     private Boolean available;
+    @Indexed(background = true)
     private String sellerId;
 
     // ✅ Add this manually so you can use room.isAvailable()
@@ -0,0 +1,23 @@
+package HotelApp.com.example.HotelApp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "room_calendars")
+public class RoomCalendar {
+    @Id
+    private String roomId;
+
+    private long baseDay;  // epoch day of bit 0, always a multiple of 64
+    private long[] days;   // bit i set → day (baseDay + i) is booked
+
+    @Version
+    private Long version;  // every write is conditional on this, which makes reservations atomic across nodes
+}
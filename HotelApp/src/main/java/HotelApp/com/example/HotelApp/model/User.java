@@ -2,6 +2,7 @@ package HotelApp.com.example.HotelApp.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
@@ -10,6 +11,7 @@ public class User {
     @Id
     private String id;
     private String name;
+    @Indexed(unique = true, background = true)
     private String email;
     private String password;
     private String role = "CUSTOMER";
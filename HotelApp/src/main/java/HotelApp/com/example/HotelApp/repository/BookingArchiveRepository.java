@@ -1,9 +1,15 @@
 package HotelApp.com.example.HotelApp.repository;
 
 import HotelApp.com.example.HotelApp.model.BookingArchive;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface BookingArchiveRepository extends MongoRepository<BookingArchive, String> {
     List<BookingArchive> findByUserId(String userId);
+
+    // 🔹 Cursor-backed, for exports: the caller must close the stream
+    @Meta(cursorBatchSize = 500)
+    Stream<BookingArchive> streamByUserId(String userId);
 }
@@ -0,0 +1,7 @@
+package HotelApp.com.example.HotelApp.repository;
+
+import HotelApp.com.example.HotelApp.model.JobCheckpoint;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface JobCheckpointRepository extends MongoRepository<JobCheckpoint, String> {
+}
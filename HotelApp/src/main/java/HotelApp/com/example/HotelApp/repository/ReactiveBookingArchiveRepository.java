@@ -0,0 +1,9 @@
+package HotelApp.com.example.HotelApp.repository;
+
+import HotelApp.com.example.HotelApp.model.BookingArchive;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveBookingArchiveRepository extends ReactiveMongoRepository<BookingArchive, String> {
+    Flux<BookingArchive> findByUserId(String userId);
+}
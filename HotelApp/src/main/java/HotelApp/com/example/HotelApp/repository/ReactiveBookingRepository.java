@@ -0,0 +1,13 @@
+package HotelApp.com.example.HotelApp.repository;
+
+import HotelApp.com.example.HotelApp.model.Booking;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+public interface ReactiveBookingRepository extends ReactiveMongoRepository<Booking, String> {
+
+    Flux<Booking> findByUserId(String userId);
+    Flux<Booking> findByRoomIdIn(Collection<String> roomIds);
+}
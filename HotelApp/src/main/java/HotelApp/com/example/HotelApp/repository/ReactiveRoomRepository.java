@@ -0,0 +1,7 @@
+package HotelApp.com.example.HotelApp.repository;
+
+import HotelApp.com.example.HotelApp.model.Room;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+public interface ReactiveRoomRepository extends ReactiveMongoRepository<Room, String> {
+}
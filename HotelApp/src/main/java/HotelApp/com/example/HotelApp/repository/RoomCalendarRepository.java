@@ -0,0 +1,7 @@
+package HotelApp.com.example.HotelApp.repository;
+
+import HotelApp.com.example.HotelApp.model.RoomCalendar;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface RoomCalendarRepository extends MongoRepository<RoomCalendar, String> {
+}
@@ -0,0 +1,7 @@
+package HotelApp.com.example.HotelApp.security;
+
+/**
+ * Principal placed in the SecurityContext by JwtAuthenticationFilter.
+ * Controllers read it with @AuthenticationPrincipal instead of re-parsing the token cookie.
+ */
+public record AuthenticatedUser(String userId, String role) {}
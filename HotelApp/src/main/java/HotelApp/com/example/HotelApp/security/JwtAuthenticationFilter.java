@@ -0,0 +1,93 @@
+package HotelApp.com.example.HotelApp.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves the "token" cookie once per request into an AuthenticatedUser (userId + cached role)
+ * in the SecurityContext. Missing or invalid tokens leave the request anonymous; SecurityConfig
+ * decides which routes need authentication and rejects the rest before they reach a controller.
+ * Time spent here is recorded as auth.filter, tagged by outcome.
+ *
+ * Not a @Component: Spring Boot would register it as a plain servlet filter as well.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    static final String TOKEN_COOKIE = "token";
+
+    private final JwtUtils jwtUtils;
+    private final UserRoleCache userRoleCache;
+    private final Timer authenticated;
+    private final Timer anonymous;
+    private final Timer rejected;
+
+    public JwtAuthenticationFilter(JwtUtils jwtUtils, UserRoleCache userRoleCache, MeterRegistry meterRegistry) {
+        this.jwtUtils = jwtUtils;
+        this.userRoleCache = userRoleCache;
+        this.authenticated = timer(meterRegistry, "authenticated");
+        this.anonymous = timer(meterRegistry, "anonymous");
+        this.rejected = timer(meterRegistry, "invalid_token");
+    }
+
+    private static Timer timer(MeterRegistry registry, String outcome) {
+        return Timer.builder("auth.filter")
+                .description("Time to resolve the token cookie into a principal")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        Timer outcome = authenticate(request);
+        outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        chain.doFilter(request, response);
+    }
+
+    private Timer authenticate(HttpServletRequest request) {
+        String token = tokenCookie(request);
+        if (token == null) return anonymous;
+
+        try {
+            String userId = jwtUtils.getUserIdFromToken(token);
+            String role = userId == null ? null : userRoleCache.getRole(userId);
+            if (role == null) return rejected; // user deleted since the token was issued
+
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    new AuthenticatedUser(userId, role), null,
+                    List.of(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase())));
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(authentication);
+            SecurityContextHolder.setContext(context);
+            return authenticated;
+        } catch (RuntimeException e) {
+            // bad signature, expired, malformed: treat as anonymous
+            return rejected;
+        }
+    }
+
+    private static String tokenCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return null;
+        for (Cookie cookie : cookies) {
+            if (TOKEN_COOKIE.equals(cookie.getName())) return cookie.getValue();
+        }
+        return null;
+    }
+}
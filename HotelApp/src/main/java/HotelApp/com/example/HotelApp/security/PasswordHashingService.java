@@ -0,0 +1,167 @@
+package HotelApp.com.example.HotelApp.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt hashing and verification on a dedicated pool sized to the CPU, so a login burst queues here
+ * instead of occupying every Tomcat thread. The queue is bounded: when it is full, or a hash does not
+ * finish within auth.hashing.timeout-ms, the caller gets 503 with Retry-After.
+ *
+ * The work factor is auth.hashing.strength when set; otherwise it is calibrated at startup to the highest
+ * cost (never below BCrypt's default of 10) whose hash time fits auth.hashing.target-ms on this machine.
+ * Stored hashes keep their own cost, so changing the factor only affects new and upgraded passwords.
+ *
+ * Metrics: auth.hashing (timer, op=encode|matches), auth.hashing.queue.depth, auth.hashing.active,
+ * auth.hashing.rejected and auth.hashing.strength.
+ */
+@Component
+public class PasswordHashingService {
+
+    static final int MIN_STRENGTH = 10;
+    static final int MAX_STRENGTH = 16;
+
+    private final ThreadPoolExecutor executor;
+    private final BCryptPasswordEncoder encoder;
+    private final int strength;
+    private final long timeoutMs;
+    private final long retryAfterSeconds;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public PasswordHashingService(MeterRegistry meterRegistry,
+                                  @Value("${auth.hashing.threads:0}") int threads,
+                                  @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${auth.hashing.timeout-ms:5000}") long timeoutMs,
+                                  @Value("${auth.hashing.retry-after-seconds:2}") long retryAfterSeconds,
+                                  @Value("${auth.hashing.strength:0}") int configuredStrength,
+                                  @Value("${auth.hashing.target-ms:250}") long targetMs) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMs = timeoutMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        this.strength = configuredStrength > 0 ? configuredStrength : calibrate(targetMs);
+        this.encoder = new BCryptPasswordEncoder(strength);
+        System.out.println("Password hashing: BCrypt strength " + strength + " on " + poolSize + " threads"
+                + (configuredStrength > 0 ? " (configured)." : " (calibrated to " + targetMs + " ms)."));
+
+        this.encodeTimer = Timer.builder("auth.hashing").tag("op", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.hashing").tag("op", "matches").register(meterRegistry);
+        this.rejected = Counter.builder("auth.hashing.rejected")
+                .description("Hash requests refused because the pool was saturated")
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        Gauge.builder("auth.hashing.strength", () -> strength).register(meterRegistry);
+    }
+
+    // -------------------- HASH / VERIFY --------------------
+    public String encode(String rawPassword) {
+        return submit(() -> encodeTimer.recordCallable(() -> encoder.encode(rawPassword)));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(() -> matchesTimer.recordCallable(() -> encoder.matches(rawPassword, encodedPassword)));
+    }
+
+    // True when the stored hash was made with a lower cost than the current one
+    public boolean needsUpgrade(String encodedPassword) {
+        return encoder.upgradeEncoding(encodedPassword);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw busy();
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw busy();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            throw new RuntimeException("Password hashing failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    private ResponseStatusException busy() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, please try again") {
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        };
+    }
+
+    // -------------------- CALIBRATION --------------------
+    // Each extra cost step doubles the work, so measure once and step up while the doubled time still fits
+    static int calibrate(long targetMs) {
+        new BCryptPasswordEncoder(4).encode("warm-up");
+
+        int cost = MIN_STRENGTH;
+        long elapsedMs = timeEncode(cost);
+        while (cost < MAX_STRENGTH && elapsedMs * 2 <= targetMs) {
+            cost++;
+            elapsedMs = timeEncode(cost);
+        }
+        return cost;
+    }
+
+    private static long timeEncode(int cost) {
+        long start = System.nanoTime();
+        new BCryptPasswordEncoder(cost).encode("calibration-password");
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
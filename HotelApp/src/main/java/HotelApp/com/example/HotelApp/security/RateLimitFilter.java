@@ -0,0 +1,193 @@
+package HotelApp.com.example.HotelApp.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the credential endpoints, in front of BCrypt.
+ * Each route has a per-IP policy and a per-email policy; a request must get a token from both.
+ * The email is read from the JSON body, which is buffered and replayed to the controller. Bodies over MAX_BODY_BYTES,
+ * declared or chunked, are refused with 413: passing them through unread would skip the per-email policy.
+ * Rejections are 429 with Retry-After and counted in auth.ratelimit.rejected (route, key=ip|email).
+ *
+ * Not a @Component, for the same reason as JwtAuthenticationFilter.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final int MAX_BODY_BYTES = 16 * 1024;
+
+    /** Policies for one POST route. */
+    public record RoutePolicy(String path, TokenBucketRateLimiter.Policy perIp, TokenBucketRateLimiter.Policy perEmail) {}
+
+    private final TokenBucketRateLimiter limiter;
+    private final Map<String, RoutePolicy> routes;
+    private final boolean trustForwardedFor;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(TokenBucketRateLimiter limiter, List<RoutePolicy> routes,
+                           boolean trustForwardedFor, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.routes = new ConcurrentHashMap<>();
+        routes.forEach(r -> this.routes.put(r.path(), r));
+        this.trustForwardedFor = trustForwardedFor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !routes.containsKey(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RoutePolicy route = routes.get(request.getRequestURI());
+
+        long wait = limiter.tryAcquire(route.perIp(), clientIp(request));
+        if (wait > 0) {
+            reject(response, route, "ip", wait);
+            return;
+        }
+
+        // A login/register form is small; a chunked body (no Content-Length) is read up to one byte past the cap
+        if (request.getContentLengthLong() > MAX_BODY_BYTES) {
+            rejectTooLarge(response);
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            rejectTooLarge(response);
+            return;
+        }
+
+        CachedBodyRequest cached = new CachedBodyRequest(request, body);
+        String email = email(cached.body);
+        if (email != null) {
+            wait = limiter.tryAcquire(route.perEmail(), email);
+            if (wait > 0) {
+                reject(response, route, "email", wait);
+                return;
+            }
+        }
+        chain.doFilter(cached, response);
+    }
+
+    private void reject(HttpServletResponse response, RoutePolicy route, String key, long waitNanos) throws IOException {
+        rejectedCounters.computeIfAbsent(route.path() + "|" + key, k -> Counter.builder("auth.ratelimit.rejected")
+                .tag("route", route.path())
+                .tag("key", key)
+                .register(meterRegistry)).increment();
+
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"success\":false,\"message\":\"Too many attempts, please try again later\",\"data\":null}");
+    }
+
+    private static void rejectTooLarge(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"success\":false,\"message\":\"Request body too large\",\"data\":null}");
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                int comma = forwarded.indexOf(',');
+                return (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private String email(byte[] body) {
+        try {
+            JsonNode node = objectMapper.readTree(body);
+            JsonNode email = node == null ? null : node.get("email");
+            return email != null && email.isTextual() ? email.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            return null; // not JSON; the controller will reject it
+        }
+    }
+
+    // Replays the buffered body to the rest of the chain
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it is all available at once
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        if (isFinished()) listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
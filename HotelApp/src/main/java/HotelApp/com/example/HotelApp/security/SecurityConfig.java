@@ -1,11 +1,18 @@
 package HotelApp.com.example.HotelApp.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -13,12 +20,33 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import java.util.List;
 
 @Configuration
+@RequiredArgsConstructor
 public class SecurityConfig {
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
+    // Routes that work without a token cookie; everything else needs an authenticated principal
+    private static final String[] PUBLIC_ROUTES = {
+            "/api/auth/register", "/api/auth/login", "/api/auth/logout",
+            "/api/home", "/api/about", "/api/images/**", "/actuator/health"
+    };
+
+    private final JwtUtils jwtUtils;
+    private final UserRoleCache userRoleCache;
+    private final MeterRegistry meterRegistry;
+    private final TokenBucketRateLimiter tokenBucketRateLimiter;
+
+    // Rate limits for the credential endpoints: burst capacity and refill per minute, per IP and per email
+    @Value("${ratelimit.login.ip.capacity:20}") private int loginIpCapacity;
+    @Value("${ratelimit.login.ip.per-minute:10}") private int loginIpPerMinute;
+    @Value("${ratelimit.login.email.capacity:5}") private int loginEmailCapacity;
+    @Value("${ratelimit.login.email.per-minute:5}") private int loginEmailPerMinute;
+    @Value("${ratelimit.register.ip.capacity:5}") private int registerIpCapacity;
+    @Value("${ratelimit.register.ip.per-minute:2}") private int registerIpPerMinute;
+    @Value("${ratelimit.register.email.capacity:3}") private int registerEmailCapacity;
+    @Value("${ratelimit.register.email.per-minute:1}") private int registerEmailPerMinute;
+
+    // Only enable behind a proxy that overwrites X-Forwarded-For, otherwise clients can pick their own key
+    @Value("${ratelimit.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
 
     // ✅ Add this CORS configuration
     @Bean
@@ -40,13 +68,40 @@ public class SecurityConfig {
         http
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(corsConfigurationSource())) // ✅ enable CORS
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .addFilterBefore(new JwtAuthenticationFilter(jwtUtils, userRoleCache, meterRegistry),
+                        UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(rateLimitFilter(), JwtAuthenticationFilter.class)
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/auth/**").permitAll() // allow auth APIs
-                        .anyRequest().permitAll()
-                );
+                        .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll() // CORS preflight
+                        // Both dispatches continue a request that was already authorised on its REQUEST dispatch and
+                        // the token filter does not run on them: ERROR renders the status of a request that failed
+                        // (400, 409, 503...), ASYNC writes a Flux or StreamingResponseBody result
+                        .dispatcherTypeMatchers(DispatcherType.ERROR, DispatcherType.ASYNC).permitAll()
+                        .requestMatchers("/error").permitAll()
+                        .requestMatchers(PUBLIC_ROUTES).permitAll()
+                        .anyRequest().authenticated()
+                )
+                // Same envelope as the controllers' old "Missing token" responses
+                .exceptionHandling(ex -> ex.authenticationEntryPoint((request, response, e) -> {
+                    response.setStatus(HttpStatus.UNAUTHORIZED.value());
+                    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                    response.getWriter().write("{\"success\":false,\"message\":\"Missing or invalid token\",\"data\":null}");
+                }));
 
         return http.build();
     }
+
+    private RateLimitFilter rateLimitFilter() {
+        List<RateLimitFilter.RoutePolicy> routes = List.of(
+                new RateLimitFilter.RoutePolicy("/api/auth/login",
+                        new TokenBucketRateLimiter.Policy("login-ip", loginIpCapacity, loginIpPerMinute),
+                        new TokenBucketRateLimiter.Policy("login-email", loginEmailCapacity, loginEmailPerMinute)),
+                new RateLimitFilter.RoutePolicy("/api/auth/register",
+                        new TokenBucketRateLimiter.Policy("register-ip", registerIpCapacity, registerIpPerMinute),
+                        new TokenBucketRateLimiter.Policy("register-email", registerEmailCapacity, registerEmailPerMinute)));
+        return new RateLimitFilter(tokenBucketRateLimiter, routes, trustForwardedFor, meterRegistry);
+    }
 }
 
 
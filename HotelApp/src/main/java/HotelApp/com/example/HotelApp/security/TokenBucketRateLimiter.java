@@ -0,0 +1,83 @@
+package HotelApp.com.example.HotelApp.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process token buckets keyed by arbitrary strings (policy + client IP, policy + email).
+ *
+ * Each bucket is a single AtomicLong holding its "theoretical arrival time" (GCRA): the instant at which
+ * the bucket would be full again. A request is admitted when that instant is at most one burst ahead of
+ * now, and admitting it pushes the instant forward by one refill interval. That is exactly a token bucket
+ * of the same capacity and rate, but the whole check-and-take is one compareAndSet with no locks and no
+ * per-bucket timestamps to keep in sync.
+ *
+ * A bucket whose arrival time has passed is full, so it carries no state worth keeping; the periodic sweep
+ * drops those, which bounds the map by the number of keys seen within roughly one refill window.
+ */
+@Component
+public class TokenBucketRateLimiter {
+
+    /** capacity = burst size; refillPerMinute = sustained rate. */
+    public record Policy(String name, int capacity, int refillPerMinute) {
+
+        long intervalNanos() {
+            return TimeUnit.MINUTES.toNanos(1) / Math.max(1, refillPerMinute);
+        }
+
+        long burstNanos() {
+            return intervalNanos() * Math.max(1, capacity);
+        }
+    }
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    public TokenBucketRateLimiter(MeterRegistry meterRegistry) {
+        Gauge.builder("auth.ratelimit.buckets", buckets, ConcurrentHashMap::size)
+                .description("Rate limit buckets currently tracked")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one token from the bucket for (policy, key).
+     * Returns 0 when admitted, otherwise the nanoseconds until a token will be available.
+     */
+    public long tryAcquire(Policy policy, String key) {
+        long interval = policy.intervalNanos();
+        long burst = policy.burstNanos();
+        AtomicLong bucket = buckets.computeIfAbsent(policy.name() + '|' + key, k -> new AtomicLong(Long.MIN_VALUE));
+
+        while (true) {
+            long now = System.nanoTime();
+            long tat = bucket.get();
+            long start = tat == Long.MIN_VALUE || tat - now < 0 ? now : tat;
+            long next = start + interval;
+            long wait = next - now - burst;
+            if (wait > 0) return wait;
+            if (bucket.compareAndSet(tat, next)) return 0;
+        }
+    }
+
+    // -------------------- IDLE EVICTION --------------------
+    @Scheduled(fixedDelayString = "${ratelimit.sweep-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        // A request racing with the removal can at worst get one token from a fresh bucket
+        buckets.forEach((key, bucket) -> {
+            long tat = bucket.get();
+            if (tat == Long.MIN_VALUE || tat - now <= 0) {
+                buckets.remove(key, bucket);
+            }
+        });
+    }
+
+    int size() {
+        return buckets.size();
+    }
+}
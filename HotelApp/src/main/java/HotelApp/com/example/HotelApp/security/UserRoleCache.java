@@ -0,0 +1,55 @@
+package HotelApp.com.example.HotelApp.security;
+
+import HotelApp.com.example.HotelApp.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * userId → role, so the auth filter does not read the user document on every request.
+ * AuthService evicts on role changes; other instances pick a change up after auth.role-cache.ttl-ms.
+ */
+@Component
+public class UserRoleCache {
+
+    private final MongoTemplate mongoTemplate;
+    private final Cache<String, String> roles;
+
+    public UserRoleCache(MongoTemplate mongoTemplate,
+                         MeterRegistry meterRegistry,
+                         @Value("${auth.role-cache.max-size:10000}") long maxSize,
+                         @Value("${auth.role-cache.ttl-ms:300000}") long ttlMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.roles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, roles, "user-roles");
+    }
+
+    // null when the user no longer exists
+    public String getRole(String userId) {
+        return roles.get(userId, this::loadRole);
+    }
+
+    public void evict(String userId) {
+        roles.invalidate(userId);
+    }
+
+    private String loadRole(String userId) {
+        Query query = new Query(Criteria.where("_id").is(userId));
+        query.fields().include("role");
+        User user = mongoTemplate.findOne(query, User.class);
+        if (user == null) return null;
+        return user.getRole() != null ? user.getRole() : "CUSTOMER";
+    }
+}
@@ -434,23 +434,24 @@ import HotelApp.com.example.HotelApp.repository.BookingArchiveRepository;
 import HotelApp.com.example.HotelApp.repository.RoomRepository;
 import HotelApp.com.example.HotelApp.repository.UserRepository;
 import HotelApp.com.example.HotelApp.security.JwtUtils;
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
+import HotelApp.com.example.HotelApp.security.PasswordHashingService;
+import HotelApp.com.example.HotelApp.security.UserRoleCache;
+import HotelApp.com.example.HotelApp.service.CollectionVersions.Versioned;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -460,33 +461,62 @@ public class AuthService {
     private final RoomRepository roomRepository;
     private final BookingRepository bookingRepository;
     private final BookingArchiveRepository bookingArchiveRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtUtils jwtUtils;
-    private final Cloudinary cloudinary;
+    private final RoomSearchIndex roomSearchIndex;
+    private final RoomAvailabilityIndex roomAvailabilityIndex;
+    private final RoomCalendarService roomCalendarService;
+    private final RoomBatchLoader roomBatchLoader;
+    private final SellerBookingService sellerBookingService;
+    private final BookingArchiver bookingArchiver;
+    private final RoomCache roomCache;
+    private final UserRoleCache userRoleCache;
+    private final EmailBloomFilter emailBloomFilter;
+    private final ImageAssetService imageAssetService;
+    private final CollectionVersions collectionVersions;
 
     // -------------------- USER METHODS --------------------
     public UserResponseDTO register(UserRequestDTO dto) {
-        if (userRepository.existsByEmail(dto.getEmail()))
-            throw new RuntimeException("Email already exists");
+        // Skip the lookup when the Bloom filter knows the email was never registered
+        if (emailBloomFilter.mightContain(dto.getEmail())) {
+            boolean exists = userRepository.existsByEmail(dto.getEmail());
+            emailBloomFilter.recordLookup(exists);
+            if (exists)
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already exists");
+        }
 
         User user = new User();
         user.setName(dto.getName());
         user.setEmail(dto.getEmail());
-        user.setPassword(passwordEncoder.encode(dto.getPassword()));
+        user.setPassword(passwordHashingService.encode(dto.getPassword()));
         user.setRole("CUSTOMER");
 
-        userRepository.save(user);
+        // The unique email index catches concurrent registrations the check above cannot see
+        try {
+            userRepository.save(user);
+        } catch (DuplicateKeyException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already exists");
+        }
+        emailBloomFilter.add(user.getEmail());
 
         return new UserResponseDTO(user.getId(), user.getName(), user.getEmail(), user.getRole(), user.getImage());
     }
 
     public String login(LoginRequestDTO dto) {
+        // No Bloom filter shortcut here: each instance has its own filter, which misses emails registered on
+        // another instance until its next rebuild, and a false "absent" would lock a real user out
         User user = userRepository.findByEmail(dto.getEmail())
                 .orElseThrow(() -> new RuntimeException("Invalid email or password"));
 
-        if (!passwordEncoder.matches(dto.getPassword(), user.getPassword()))
+        if (!passwordHashingService.matches(dto.getPassword(), user.getPassword()))
             throw new RuntimeException("Invalid email or password");
 
+        // Re-hash at the current work factor while we still have the plain password
+        if (passwordHashingService.needsUpgrade(user.getPassword())) {
+            user.setPassword(passwordHashingService.encode(dto.getPassword()));
+            userRepository.save(user);
+        }
+
         return jwtUtils.generateToken(user.getId());
     }
 
@@ -503,20 +533,19 @@ public class AuthService {
         user.setName(dto.getName());
 
         if (dto.getPassword() != null && !dto.getPassword().isEmpty()) {
-            user.setPassword(passwordEncoder.encode(dto.getPassword()));
+            user.setPassword(passwordHashingService.encode(dto.getPassword()));
         }
 
-        if (dto.getImage() != null && !dto.getImage().isEmpty()) {
-            try {
-                Map uploadResult = cloudinary.uploader().upload(dto.getImage(), ObjectUtils.emptyMap());
-                String imageUrl = uploadResult.get("secure_url").toString();
-                user.setImage(imageUrl);
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to upload image: " + e.getMessage());
-            }
+        // Already uploaded by the controller; keep the URL instead of uploading it a second time
+        String previousImage = user.getImage();
+        boolean imageChanged = dto.getImage() != null && !dto.getImage().isEmpty();
+        if (imageChanged) {
+            user.setImage(dto.getImage());
         }
 
         userRepository.save(user);
+        collectionVersions.bump(Versioned.USERS);
+        if (imageChanged) imageAssetService.release(previousImage);
 
         return new UserResponseDTO(
                 user.getId(),
@@ -533,6 +562,8 @@ public class AuthService {
         if ("CUSTOMER".equalsIgnoreCase(user.getRole())) {
             user.setRole("SELLER");
             userRepository.save(user);
+            userRoleCache.evict(userId);
+            collectionVersions.bump(Versioned.USERS);
         }
         return new UserResponseDTO(user.getId(), user.getName(), user.getEmail(), user.getRole(), user.getImage());
     }
@@ -547,24 +578,19 @@ public class AuthService {
         room.setAvailable(dto.getAvailable());
         room.setSellerId(sellerId);
 
-        List<String> uploadedUrls = dto.getImages().stream().map(img -> {
-            try {
-                Map uploadResult = cloudinary.uploader().upload(img, ObjectUtils.emptyMap());
-                return uploadResult.get("secure_url").toString();
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to upload image: " + e.getMessage());
-            }
-        }).collect(Collectors.toList());
-
-        room.setImages(uploadedUrls);
+        // Images arrive as URLs already uploaded by ImageIngestionService
+        room.setImages(dto.getImages() != null ? dto.getImages() : List.of());
         Room saved = roomRepository.save(room);
-        return mapRoomToDTO(saved);
+        roomCache.put(saved);
+        roomSearchIndex.index(saved);
+        collectionVersions.bump(Versioned.ROOMS);
+        return DtoMappers.toRoomDTO(saved);
     }
 
     public List<RoomResponseDTO> getRoomsBySeller(String sellerId) {
         return roomRepository.findBySellerId(sellerId)
                 .stream()
-                .map(this::mapRoomToDTO)
+                .map(DtoMappers::toRoomDTO)
                 .collect(Collectors.toList());
     }
 
@@ -580,20 +606,19 @@ public class AuthService {
         room.setPrice(dto.getPrice());
         room.setAvailable(dto.getAvailable());
 
+        List<String> replacedImages = List.of();
         if (dto.getImages() != null && !dto.getImages().isEmpty()) {
-            List<String> uploadedUrls = dto.getImages().stream().map(img -> {
-                try {
-                    Map uploadResult = cloudinary.uploader().upload(img, ObjectUtils.emptyMap());
-                    return uploadResult.get("secure_url").toString();
-                } catch (Exception e) {
-                    throw new RuntimeException("Failed to upload image: " + e.getMessage());
-                }
-            }).collect(Collectors.toList());
-            room.setImages(uploadedUrls);
+            replacedImages = room.getImages() != null ? room.getImages() : List.of();
+            room.setImages(dto.getImages());
         }
 
         Room updated = roomRepository.save(room);
-        return mapRoomToDTO(updated);
+        roomCache.put(updated);
+        roomSearchIndex.index(updated);
+        collectionVersions.bump(Versioned.ROOMS);
+        // New images were referenced on upload; drop the old list's references (re-uploaded photos net out)
+        imageAssetService.releaseAll(replacedImages);
+        return DtoMappers.toRoomDTO(updated);
     }
 
     public void deleteRoom(String roomId, String sellerId) {
@@ -601,44 +626,25 @@ public class AuthService {
                 .orElseThrow(() -> new RuntimeException("Room not found"));
         if (!room.getSellerId().equals(sellerId)) throw new RuntimeException("Unauthorized");
         roomRepository.delete(room);
-    }
-
-    private RoomResponseDTO mapRoomToDTO(Room room) {
-        RoomResponseDTO dto = new RoomResponseDTO();
-        dto.setId(room.getId());
-        dto.setHotelName(room.getHotelName());
-        dto.setLocation(room.getLocation());
-        dto.setRoomType(room.getRoomType());
-        dto.setImages(room.getImages());
-        dto.setPrice(room.getPrice());
-        dto.setAvailable(room.getAvailable());
-        dto.setSellerId(room.getSellerId());
-        return dto;
+        roomCache.evict(roomId);
+        roomSearchIndex.remove(roomId);
+        collectionVersions.bump(Versioned.ROOMS);
+        roomCalendarService.deleteCalendar(roomId);
+        imageAssetService.releaseAll(room.getImages());
     }
 
     public List<RoomResponseDTO> getAllRooms() {
         List<Room> rooms = roomRepository.findAll();
 
         return rooms.stream()
-                .map(room -> {
-                    RoomResponseDTO dto = new RoomResponseDTO();
-                    dto.setId(room.getId());
-                    dto.setHotelName(room.getHotelName());
-                    dto.setLocation(room.getLocation());
-                    dto.setRoomType(room.getRoomType());
-                    dto.setPrice(room.getPrice());
-                    dto.setAvailable(room.getAvailable() != null ? room.getAvailable() : false);
-                    dto.setImages(room.getImages());
-                    dto.setSellerId(room.getSellerId());
-                    return dto;
-                })
+                .map(DtoMappers::toRoomDTO)
                 .collect(Collectors.toList());
     }
 
     // -------------------- BOOKING METHODS -------------------
     @Transactional
     public BookingResponseDTO createBooking(String userId, BookingRequestDTO dto) {
-        Optional<Room> roomOpt = roomRepository.findById(dto.getRoomId());
+        Optional<Room> roomOpt = roomCache.get(dto.getRoomId());
         if (roomOpt.isEmpty()) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Room not found");
         }
@@ -649,16 +655,8 @@ public class AuthService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Room not available");
         }
 
-        // Check for overlapping bookings
-        List<Booking> conflicts = bookingRepository.findConflictingBookings(
-                dto.getRoomId(),
-                dto.getBookingDate(),
-                dto.getLeavingDate()
-        );
-
-        if (!conflicts.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Room already booked for selected dates");
-        }
+        // Check for overlapping bookings and claim the dates on the room calendar
+        roomCalendarService.reserve(dto.getRoomId(), dto.getBookingDate(), dto.getLeavingDate());
 
         // Create booking
         Booking booking = new Booking();
@@ -674,169 +672,68 @@ public class AuthService {
         booking.setBookingDate(dto.getBookingDate());
         booking.setLeavingDate(dto.getLeavingDate());
 
-        Booking saved = bookingRepository.save(booking);
-
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        String bookingDateStr = saved.getBookingDate().format(formatter);
-        String leavingDateStr = saved.getLeavingDate().format(formatter);
-
-        String imageUrl = room.getImages() != null && !room.getImages().isEmpty()
-                ? room.getImages().get(0)
-                : null;
-
-        return new BookingResponseDTO(
-                saved.getId(),
-                saved.getUserId(),
-                saved.getRoomId(),
-                saved.getHotelName(),
-                saved.getRoomType(),
-                saved.getName(),
-                saved.getAge(),
-                saved.getGender(),
-                bookingDateStr,
-                leavingDateStr,
-                imageUrl,
-                room.getPrice(),
-                room.getLocation()
-        );
+        Booking saved;
+        try {
+            saved = bookingRepository.save(booking);
+        } catch (RuntimeException e) {
+            // Best-effort, so the save error is what the caller sees
+            roomCalendarService.releaseOrRebuild(room.getId(), dto.getBookingDate(), dto.getLeavingDate());
+            throw e;
+        }
+        roomAvailabilityIndex.add(saved);
+        collectionVersions.bump(Versioned.BOOKINGS);
+
+        return DtoMappers.toBookingDTO(saved, room);
     }
 
     public List<BookingResponseDTO> getBookingsByUser(String userId) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
         // Sirf live bookings fetch karo
-        return bookingRepository.findByUserId(userId)
-                .stream()
-                .map(b -> {
-                    Room room = roomRepository.findById(b.getRoomId()).orElse(null);
-                    String imageUrl = null;
-                    Double price = null;
-                    String location = null;
-                    if (room != null) {
-                        if (room.getImages() != null && !room.getImages().isEmpty()) {
-                            imageUrl = room.getImages().get(0);
-                        }
-                        price = room.getPrice();
-                        location = room.getLocation();
-                    }
-                    return new BookingResponseDTO(
-                            b.getId(),
-                            b.getUserId(),
-                            b.getRoomId(),
-                            b.getHotelName(),
-                            b.getRoomType(),
-                            b.getName(),
-                            b.getAge(),
-                            b.getGender(),
-                            b.getBookingDate().format(formatter),
-                            b.getLeavingDate().format(formatter),
-                            imageUrl,
-                            price,
-                            location
-                    );
-                }).toList();
+        List<Booking> bookings = bookingRepository.findByUserId(userId);
+
+        // 🔹 One batched lookup for all rooms instead of one per booking
+        Map<String, Room> rooms = roomBatchLoader.loadAll(bookings.stream().map(Booking::getRoomId).toList());
+
+        return bookings.stream()
+                .map(b -> DtoMappers.toBookingDTO(b, rooms.get(b.getRoomId())))
+                .toList();
     }
 
     // Archived bookings ke liye alag method
     public List<BookingArchiveDTO> getArchivedBookingsByUser(String userId) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
-        return bookingArchiveRepository.findByUserId(userId)
-                .stream()
-                .map(b -> {
-                    // 🔹 fetch image from original room if exists
-                    Room room = roomRepository.findById(b.getRoomId()).orElse(null);
-                    String imageUrl = null;
-                    if (room != null && room.getImages() != null && !room.getImages().isEmpty()) {
-                        imageUrl = room.getImages().get(0);
-                    }
-
-                    return new BookingArchiveDTO(
-                            b.getId(),
-                            b.getUserId(),
-                            b.getRoomId(),
-                            b.getName(),
-                            b.getAge(),
-                            b.getGender(),
-                            b.getBookingDate().format(formatter),
-                            b.getLeavingDate().format(formatter),
-                            b.getHotelName(),
-                            b.getRoomType(),
-                            b.getLocation(),
-                            b.getPrice(),
-                            b.getStatus(),  // ✅ status
-                            imageUrl       // ✅ imageUrl
-                    );
-                })
+        List<BookingArchive> archived = bookingArchiveRepository.findByUserId(userId);
+
+        // 🔹 imageUrl is stored on the archive row; only older rows without it need the room
+        Map<String, Room> rooms = roomBatchLoader.loadAll(archived.stream()
+                .filter(b -> b.getImageUrl() == null)
+                .map(BookingArchive::getRoomId)
+                .toList());
+
+        return archived.stream()
+                .map(b -> DtoMappers.toArchiveDTO(b, b.getImageUrl() != null
+                        ? b.getImageUrl()
+                        : RoomBatchLoader.firstImage(rooms.get(b.getRoomId()))))
                 .toList();
     }
 
+    // 🔹 Export variant: rows come straight off a Mongo cursor, nothing is collected.
+    // Runs outside the request scope, so older rows without imageUrl go through RoomCache instead of RoomBatchLoader.
+    public Stream<BookingArchiveDTO> streamArchivedBookingsByUser(String userId) {
+        return bookingArchiveRepository.streamByUserId(userId)
+                .map(b -> DtoMappers.toArchiveDTO(b, b.getImageUrl() != null
+                        ? b.getImageUrl()
+                        : roomCache.get(b.getRoomId()).map(RoomBatchLoader::firstImage).orElse(null)));
+    }
+
 
+    // 🔹 Filtered in Mongo by the seller's room ids (see SellerBookingService)
     public List<SellerBookingDTO> getBookingsForSeller(String sellerId) {
-        List<Room> sellerRooms = roomRepository.findBySellerId(sellerId);
-
-        // 🔹 Map roomId → first image from images list
-        Map<String, String> roomImageMap = sellerRooms.stream()
-                .collect(Collectors.toMap(
-                        Room::getId,
-                        room -> (room.getImages() != null && !room.getImages().isEmpty())
-                                ? room.getImages().get(0)
-                                : null
-                ));
-
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
-        return bookingRepository.findAll().stream()
-                .filter(b -> roomImageMap.containsKey(b.getRoomId()))
-                .map(b -> new SellerBookingDTO(
-                        b.getId(),
-                        b.getName(),
-                        b.getAge(),
-                        b.getGender(),
-                        b.getRoomType(),
-                        b.getBookingDate().format(formatter),
-                        b.getLeavingDate().format(formatter),
-                        roomImageMap.get(b.getRoomId()) // ✅ first image
-                ))
-                .toList();
+        return sellerBookingService.getBookings(sellerId);
     }
 
     public List<SellerBookingArchiveDTO> getSellerBookingHistory(String sellerId) {
-        // 1️⃣ Seller ke rooms fetch karo
-        List<Room> sellerRooms = roomRepository.findBySellerId(sellerId);
-
-        List<String> roomIds = sellerRooms.stream()
-                .map(Room::getId)
-                .toList();
-
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
-        // 2️⃣ BookingArchive me filter karo jahan roomId seller ke rooms me ho
-        return bookingArchiveRepository.findAll().stream()
-                .filter(ba -> roomIds.contains(ba.getRoomId()))
-                .map(ba -> new SellerBookingArchiveDTO(
-                        ba.getId(),
-                        ba.getUserId(),
-                        ba.getRoomId(),
-                        ba.getName(),
-                        ba.getAge(),
-                        ba.getGender(),
-                        ba.getBookingDate().format(formatter),
-                        ba.getLeavingDate().format(formatter),
-                        ba.getHotelName(),
-                        ba.getRoomType(),
-                        ba.getLocation(),
-                        ba.getPrice(),
-                        ba.getStatus(),
-                        ba.getImageUrl() // room image
-                ))
-                .toList();
+        return sellerBookingService.getHistory(sellerId);
     }
 
-
-
-
-
     @Transactional
     public void deleteBooking(String userId, String bookingId) {
         Booking booking = bookingRepository.findById(bookingId)
@@ -851,41 +748,31 @@ public class AuthService {
         archive.setStatus("CANCELLED"); // ✅ Mark as cancelled
 
         // 🔹 Set imageUrl from room
-        Room room = roomRepository.findById(booking.getRoomId()).orElse(null);
+        Room room = roomCache.get(booking.getRoomId()).orElse(null);
         if (room != null && room.getImages() != null && !room.getImages().isEmpty()) {
             archive.setImageUrl(room.getImages().get(0));
         }
 
-        bookingArchiveRepository.save(archive);
-        bookingRepository.delete(booking);
+        // Free the nights first: if that gives up (409) nothing is cancelled yet and the user can retry
+        roomCalendarService.release(booking.getRoomId(), booking.getBookingDate(), booking.getLeavingDate());
+        try {
+            bookingArchiveRepository.save(archive);
+            bookingRepository.delete(booking);
+        } catch (RuntimeException e) {
+            roomCalendarService.restoreOrRebuild(booking.getRoomId(), booking.getBookingDate(), booking.getLeavingDate());
+            throw e;
+        }
+        roomAvailabilityIndex.remove(booking);
+        collectionVersions.bump(Versioned.BOOKINGS);
     }
 
     // -------------------- ARCHIVE SCHEDULER --------------------
     @Scheduled(cron = "0 0 0 * * ?") // Run every midnight
     public void archiveAndDeleteExpiredBookings() {
-        LocalDate today = LocalDate.now();
-
-        List<Booking> expiredBookings = bookingRepository.findAll().stream()
-                .filter(b -> b.getLeavingDate().isBefore(today))
-                .toList();
-
-        for (Booking b : expiredBookings) {
-            BookingArchive archive = new BookingArchive();
-            BeanUtils.copyProperties(b, archive);
-            archive.setStatus("COMPLETED"); // ✅ Mark as completed
-
-            // 🔹 Set imageUrl from room
-            Room room = roomRepository.findById(b.getRoomId()).orElse(null);
-            if (room != null && room.getImages() != null && !room.getImages().isEmpty()) {
-                archive.setImageUrl(room.getImages().get(0));
-            }
-
-            bookingArchiveRepository.save(archive);
-        }
+        long archived = bookingArchiver.archiveExpired(LocalDate.now());
 
-        if (!expiredBookings.isEmpty()) {
-            bookingRepository.deleteAll(expiredBookings);
-            System.out.println("Archived & deleted " + expiredBookings.size() + " bookings (COMPLETED).");
+        if (archived > 0) {
+            System.out.println("Archived & deleted " + archived + " bookings (COMPLETED).");
         }
     }
 
@@ -0,0 +1,186 @@
+package HotelApp.com.example.HotelApp.service;
+
+import HotelApp.com.example.HotelApp.model.Booking;
+import HotelApp.com.example.HotelApp.model.BookingArchive;
+import HotelApp.com.example.HotelApp.model.JobCheckpoint;
+import HotelApp.com.example.HotelApp.model.JobLease;
+import HotelApp.com.example.HotelApp.model.Room;
+import HotelApp.com.example.HotelApp.repository.JobCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.MongoExpression;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves expired bookings to booking_archive in fixed-size chunks.
+ * Archive rows reuse the booking _id and are upserted, so re-running a chunk after a crash
+ * overwrites instead of duplicating; bookings are only deleted after their archive rows are written.
+ * Progress (cutoff date and last _id) is checkpointed per chunk so an interrupted run resumes where it stopped.
+ *
+ * The expired set can be split into shards (by the creation second of each booking _id). Each shard is
+ * guarded by its own JobLease, so with several instances every shard is processed by exactly one of them.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingArchiver {
+
+    static final String JOB_ID = "booking-archiver";
+
+    private final MongoTemplate mongoTemplate;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final JobLeaseService jobLeaseService;
+    private final RoomAvailabilityIndex roomAvailabilityIndex;
+    private final RoomCache roomCache;
+    private final CollectionVersions collectionVersions;
+
+    @Value("${bookings.archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${bookings.archive.shards:1}")
+    private int shards;
+
+    // Try every shard; shards whose lease another instance already holds are skipped
+    public long archiveExpired(LocalDate today) {
+        long archived = 0;
+        for (int shard = 0; shard < shards; shard++) {
+            JobLease lease = jobLeaseService.tryAcquire(JOB_ID + ":shard-" + shard);
+            if (lease == null) continue;
+            try {
+                archived += archiveShard(today, shard, lease);
+            } finally {
+                jobLeaseService.release(lease);
+            }
+        }
+        return archived;
+    }
+
+    private long archiveShard(LocalDate today, int shard, JobLease lease) {
+        JobCheckpoint checkpoint = startOrResume(today, shard, lease);
+        if (checkpoint == null) return 0;
+        long before = checkpoint.getProcessed();
+
+        while (true) {
+            if (!jobLeaseService.renew(lease)) {
+                System.out.println("Booking archiver lost lease " + lease.getName() + ", stopping.");
+                return checkpoint.getProcessed() - before;
+            }
+
+            List<Booking> chunk = nextChunk(checkpoint, shard);
+            if (chunk.isEmpty()) break;
+
+            archiveChunk(chunk);
+
+            checkpoint.setLastId(chunk.get(chunk.size() - 1).getId());
+            checkpoint.setProcessed(checkpoint.getProcessed() + chunk.size());
+            if (!saveCheckpoint(checkpoint)) return checkpoint.getProcessed() - before;
+        }
+
+        checkpoint.setStatus("DONE");
+        saveCheckpoint(checkpoint);
+        return checkpoint.getProcessed() - before;
+    }
+
+    // A RUNNING checkpoint means the previous run died part-way: keep its cutoff and position
+    private JobCheckpoint startOrResume(LocalDate today, int shard, JobLease lease) {
+        String id = shards > 1 ? JOB_ID + ":shard-" + shard : JOB_ID;
+        JobCheckpoint checkpoint = jobCheckpointRepository.findById(id).orElse(null);
+        // We hold the lease, so a newer token on the checkpoint can only be left from before a lease reset
+        if (checkpoint != null && !jobLeaseService.advancePast(lease, checkpoint.getFencingToken())) return null;
+        if (checkpoint != null && "RUNNING".equals(checkpoint.getStatus())) {
+            System.out.println("Resuming booking archiver " + id + " from " + checkpoint.getLastId()
+                    + " (cutoff " + checkpoint.getCutoff() + ", " + checkpoint.getProcessed() + " done).");
+        } else {
+            checkpoint = new JobCheckpoint(id, today, null, 0, "RUNNING", null, 0);
+        }
+        checkpoint.setFencingToken(lease.getToken());
+        return saveCheckpoint(checkpoint) ? checkpoint : null;
+    }
+
+    // Fenced write: rejected if a run holding a newer lease token has already written this checkpoint
+    private boolean saveCheckpoint(JobCheckpoint checkpoint) {
+        checkpoint.setUpdatedAt(Instant.now());
+        Query query = new Query(Criteria.where("_id").is(checkpoint.getId()).orOperator(
+                Criteria.where("fencingToken").lte(checkpoint.getFencingToken()),
+                Criteria.where("fencingToken").exists(false)));
+        Update update = new Update()
+                .set("cutoff", checkpoint.getCutoff())
+                .set("lastId", checkpoint.getLastId())
+                .set("processed", checkpoint.getProcessed())
+                .set("status", checkpoint.getStatus())
+                .set("updatedAt", checkpoint.getUpdatedAt())
+                .set("fencingToken", checkpoint.getFencingToken());
+        try {
+            mongoTemplate.upsert(query, update, JobCheckpoint.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            System.out.println("Booking archiver checkpoint " + checkpoint.getId() + " fenced off by a newer run.");
+            return false;
+        }
+    }
+
+    private List<Booking> nextChunk(JobCheckpoint checkpoint, int shard) {
+        Query query = new Query(Criteria.where("leavingDate").lt(checkpoint.getCutoff()));
+        if (checkpoint.getLastId() != null) {
+            query.addCriteria(Criteria.where("_id").gt(checkpoint.getLastId()));
+        }
+        if (shards > 1) {
+            query.addCriteria(Criteria.expr(MongoExpression.create(
+                    "{ $eq: [ { $mod: [ { $toLong: { $divide: [ { $toLong: { $toDate: '$_id' } }, 1000 ] } }, "
+                            + shards + " ] }, " + shard + " ] }")));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(chunkSize);
+        return mongoTemplate.find(query, Booking.class);
+    }
+
+    private void archiveChunk(List<Booking> chunk) {
+        Map<String, String> images = firstImages(chunk);
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BookingArchive.class);
+        for (Booking b : chunk) {
+            BookingArchive archive = new BookingArchive();
+            BeanUtils.copyProperties(b, archive);
+            archive.setStatus("COMPLETED"); // ✅ Mark as completed
+            archive.setImageUrl(images.get(b.getRoomId()));
+            bulk.replaceOne(new Query(Criteria.where("_id").is(b.getId())), archive, FindAndReplaceOptions.options().upsert());
+        }
+        bulk.execute();
+
+        List<String> ids = chunk.stream().map(Booking::getId).toList();
+        mongoTemplate.remove(new Query(Criteria.where("_id").in(ids)), Booking.class);
+        roomAvailabilityIndex.removeAll(chunk);
+        collectionVersions.bump(CollectionVersions.Versioned.BOOKINGS);
+    }
+
+    // roomId → first image, from RoomCache plus at most one query per chunk
+    private Map<String, String> firstImages(List<Booking> chunk) {
+        List<String> roomIds = chunk.stream().map(Booking::getRoomId).distinct().toList();
+
+        Map<String, String> images = new HashMap<>();
+        roomCache.getAllPresent(roomIds).forEach((id, room) -> images.put(id, RoomBatchLoader.firstImage(room)));
+
+        List<String> missing = roomIds.stream().filter(id -> !images.containsKey(id)).toList();
+        if (missing.isEmpty()) return images;
+
+        Query query = new Query(Criteria.where("_id").in(missing));
+        query.fields().include("_id").slice("images", 1);
+        for (Room room : mongoTemplate.find(query, Room.class)) {
+            images.put(room.getId(), RoomBatchLoader.firstImage(room));
+        }
+        return images;
+    }
+}
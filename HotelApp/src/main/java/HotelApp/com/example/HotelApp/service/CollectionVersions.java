@@ -0,0 +1,107 @@
+package HotelApp.com.example.HotelApp.service;
+
+import HotelApp.com.example.HotelApp.model.CollectionVersion;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per-collection version counters for HTTP conditional GET (see ConditionalGetInterceptor).
+ * Every mutation of rooms, users or bookings calls bump(), which increments a shared counter in
+ * collection_versions. Reads never touch Mongo: they use the in-memory copy, which this instance
+ * advances on its own bumps and refreshes every etag.versions.refresh-ms to pick up other instances'.
+ * A write that bypasses bump() (e.g. a manual database edit) is not seen until the next bump.
+ * Until the first refresh has loaded the counters, current() returns null and no ETags are served; the same holds
+ * for a collection whose bump failed, until refresh() has retried it against the shared counter. A version is
+ * never made up locally, since another instance could then issue the same number for different content.
+ */
+@Service
+public class CollectionVersions {
+
+    public enum Versioned { ROOMS, USERS, BOOKINGS }
+
+    // modifiedAt in epoch millis, 0 = never bumped
+    public record Stamp(long version, long modifiedAt) {}
+
+    private final MongoTemplate mongoTemplate;
+    private final Map<Versioned, AtomicReference<Stamp>> stamps = new EnumMap<>(Versioned.class);
+    // Failed bumps not yet retried; the collection is unversioned while this is non-zero
+    private final Map<Versioned, AtomicInteger> unbumped = new EnumMap<>(Versioned.class);
+    private volatile boolean loaded;
+
+    public CollectionVersions(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        for (Versioned collection : Versioned.values()) {
+            stamps.put(collection, new AtomicReference<>(new Stamp(0, 0)));
+            unbumped.put(collection, new AtomicInteger());
+        }
+    }
+
+    public Stamp current(Versioned collection) {
+        return loaded && unbumped.get(collection).get() == 0 ? stamps.get(collection).get() : null;
+    }
+
+    // -------------------- BUMP --------------------
+    public void bump(Versioned collection) {
+        try {
+            advance(collection, increment(collection));
+        } catch (RuntimeException e) {
+            // Serve no tags for this collection until refresh() gets the bump through
+            System.out.println("Could not bump " + collection + " version: " + e.getMessage());
+            unbumped.get(collection).incrementAndGet();
+        }
+    }
+
+    private Stamp increment(Versioned collection) {
+        CollectionVersion doc = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(collection.name())),
+                new Update().inc("version", 1).set("updatedAt", Instant.now()),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                CollectionVersion.class);
+        return new Stamp(doc.getVersion(), doc.getUpdatedAt().toEpochMilli());
+    }
+
+    // -------------------- REFRESH --------------------
+    @Scheduled(fixedDelayString = "${etag.versions.refresh-ms:5000}")
+    public void refresh() {
+        // Retry failed bumps first: the new version postdates the writes they were for. A bump failing meanwhile
+        // changes the count, so its collection stays unversioned until the next retry
+        for (Versioned collection : Versioned.values()) {
+            int failed = unbumped.get(collection).get();
+            if (failed == 0) continue;
+            try {
+                advance(collection, increment(collection));
+                unbumped.get(collection).compareAndSet(failed, 0);
+            } catch (RuntimeException e) {
+                System.out.println("Could not bump " + collection + " version: " + e.getMessage());
+            }
+        }
+
+        for (CollectionVersion doc : mongoTemplate.findAll(CollectionVersion.class)) {
+            Versioned collection;
+            try {
+                collection = Versioned.valueOf(doc.getId());
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            long modifiedAt = doc.getUpdatedAt() != null ? doc.getUpdatedAt().toEpochMilli() : 0;
+            advance(collection, new Stamp(doc.getVersion(), modifiedAt));
+        }
+        loaded = true;
+    }
+
+    // Versions only move forward, whichever of bump() and refresh() gets there first
+    private void advance(Versioned collection, Stamp stamp) {
+        stamps.get(collection).accumulateAndGet(stamp, (current, next) -> next.version() > current.version() ? next : current);
+    }
+}
@@ -0,0 +1,88 @@
+package HotelApp.com.example.HotelApp.service;
+
+import HotelApp.com.example.HotelApp.dto.BookingArchiveDTO;
+import HotelApp.com.example.HotelApp.dto.BookingResponseDTO;
+import HotelApp.com.example.HotelApp.dto.RoomResponseDTO;
+import HotelApp.com.example.HotelApp.dto.SellerBookingDTO;
+import HotelApp.com.example.HotelApp.model.Booking;
+import HotelApp.com.example.HotelApp.model.BookingArchive;
+import HotelApp.com.example.HotelApp.model.Room;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Entity → response DTO mapping shared by the list, export and streaming (reactive) paths, so a row looks the
+ * same whichever endpoint returns it. Details that live on another document (a booking's room) are passed in:
+ * each caller loads them its own way (RoomBatchLoader, RoomCache, a reactive $in).
+ */
+final class DtoMappers {
+
+    static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private DtoMappers() {
+    }
+
+    static RoomResponseDTO toRoomDTO(Room room) {
+        RoomResponseDTO dto = new RoomResponseDTO();
+        dto.setId(room.getId());
+        dto.setHotelName(room.getHotelName());
+        dto.setLocation(room.getLocation());
+        dto.setRoomType(room.getRoomType());
+        dto.setImages(room.getImages());
+        dto.setPrice(room.getPrice());
+        dto.setAvailable(room.isAvailable());
+        dto.setSellerId(room.getSellerId());
+        return dto;
+    }
+
+    // room may be null (deleted since): image, price and location are then null
+    static BookingResponseDTO toBookingDTO(Booking b, Room room) {
+        return new BookingResponseDTO(
+                b.getId(),
+                b.getUserId(),
+                b.getRoomId(),
+                b.getHotelName(),
+                b.getRoomType(),
+                b.getName(),
+                b.getAge(),
+                b.getGender(),
+                b.getBookingDate().format(DATE),
+                b.getLeavingDate().format(DATE),
+                RoomBatchLoader.firstImage(room),
+                room != null ? room.getPrice() : null,
+                room != null ? room.getLocation() : null
+        );
+    }
+
+    static BookingArchiveDTO toArchiveDTO(BookingArchive b, String imageUrl) {
+        return new BookingArchiveDTO(
+                b.getId(),
+                b.getUserId(),
+                b.getRoomId(),
+                b.getName(),
+                b.getAge(),
+                b.getGender(),
+                b.getBookingDate().format(DATE),
+                b.getLeavingDate().format(DATE),
+                b.getHotelName(),
+                b.getRoomType(),
+                b.getLocation(),
+                b.getPrice(),
+                b.getStatus(),
+                imageUrl
+        );
+    }
+
+    static SellerBookingDTO toSellerDTO(Booking b, String roomImage) {
+        return new SellerBookingDTO(
+                b.getId(),
+                b.getName(),
+                b.getAge(),
+                b.getGender(),
+                b.getRoomType(),
+                b.getBookingDate().format(DATE),
+                b.getLeavingDate().format(DATE),
+                roomImage
+        );
+    }
+}
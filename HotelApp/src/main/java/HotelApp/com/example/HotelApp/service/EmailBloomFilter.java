@@ -0,0 +1,189 @@
+package HotelApp.com.example.HotelApp.service;
+
+import HotelApp.com.example.HotelApp.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over users.email, so register can skip the duplicate lookup for emails that were never
+ * registered. "Absent" is only certain for registrations this instance has seen: another instance's are
+ * picked up at the next rebuild. That is fine for register, where the unique email index remains the source
+ * of truth for duplicates, but not for login, which always goes to Mongo.
+ *
+ * Loaded on startup by streaming the email field only, updated on every registration and rebuilt every
+ * users.email-bloom.rebuild-ms (Bloom filters cannot delete, and the user count grows past the sizing).
+ * Until the first load finishes every email is reported as "maybe present".
+ *
+ * Metrics: users.email_bloom.checks (result=absent|maybe), users.email_bloom.false_positives and
+ * users.email_bloom.expected_fpp (estimated from the fill ratio).
+ */
+@Service
+public class EmailBloomFilter {
+
+    private final MongoTemplate mongoTemplate;
+    private final long expectedInsertions;
+    private final double targetFpp;
+
+    private volatile Bits current;
+    // Non-null while a rebuild streams the collection; registrations go to both filters meanwhile
+    private volatile Bits building;
+
+    private final Counter absent;
+    private final Counter maybe;
+    private final Counter falsePositives;
+
+    public EmailBloomFilter(MongoTemplate mongoTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${users.email-bloom.expected-insertions:1000000}") long expectedInsertions,
+                            @Value("${users.email-bloom.fpp:0.01}") double targetFpp) {
+        this.mongoTemplate = mongoTemplate;
+        this.expectedInsertions = expectedInsertions;
+        this.targetFpp = targetFpp;
+
+        this.absent = Counter.builder("users.email_bloom.checks").tag("result", "absent").register(meterRegistry);
+        this.maybe = Counter.builder("users.email_bloom.checks").tag("result", "maybe").register(meterRegistry);
+        this.falsePositives = Counter.builder("users.email_bloom.false_positives")
+                .description("Emails the filter reported as maybe present that were not in the database")
+                .register(meterRegistry);
+        Gauge.builder("users.email_bloom.expected_fpp", this, f -> f.current == null ? 1.0 : f.current.expectedFpp())
+                .register(meterRegistry);
+    }
+
+    // -------------------- QUERY --------------------
+    // false = certainly not registered
+    public boolean mightContain(String email) {
+        Bits bits = current;
+        if (bits == null || email == null) return true;
+        boolean result = bits.mightContain(email);
+        (result ? maybe : absent).increment();
+        return result;
+    }
+
+    // Report the database answer after a "maybe", for the false-positive metric
+    public void recordLookup(boolean existed) {
+        if (!existed) falsePositives.increment();
+    }
+
+    public void add(String email) {
+        if (email == null) return;
+        Bits bits = current;
+        if (bits != null) bits.add(email);
+        Bits next = building;
+        if (next != null) next.add(email);
+    }
+
+    // -------------------- LOAD / REBUILD --------------------
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${users.email-bloom.rebuild-ms:3600000}",
+            fixedDelayString = "${users.email-bloom.rebuild-ms:3600000}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            long count = mongoTemplate.estimatedCount(User.class);
+            Bits next = new Bits(Math.max(expectedInsertions, count * 2), targetFpp);
+            building = next;
+
+            Query query = new Query();
+            query.fields().include("email");
+            long loaded = 0;
+            try (Stream<User> users = mongoTemplate.stream(query, User.class)) {
+                Iterator<User> it = users.iterator();
+                while (it.hasNext()) {
+                    next.add(it.next().getEmail());
+                    loaded++;
+                }
+            }
+
+            current = next;
+            System.out.println("Email Bloom filter loaded " + loaded + " emails in "
+                    + (System.currentTimeMillis() - start) + " ms.");
+        } catch (RuntimeException e) {
+            System.out.println("Email Bloom filter rebuild failed, keeping the previous filter: " + e.getMessage());
+        } finally {
+            building = null;
+        }
+    }
+
+    // -------------------- BIT SET --------------------
+    // Standard sizing: m = -n ln p / (ln 2)^2 bits, k = m/n ln 2 hashes; positions by double hashing
+    static final class Bits {
+
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashes;
+
+        Bits(long expected, double fpp) {
+            long m = (long) Math.ceil(-expected * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            this.bitCount = Math.max(64, m);
+            this.words = new AtomicLongArray((int) ((bitCount + 63) >>> 6));
+            this.hashes = Math.max(1, (int) Math.round((double) bitCount / expected * Math.log(2)));
+        }
+
+        void add(String email) {
+            if (email == null) return;
+            long h1 = hash(email);
+            long h2 = mix(h1) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int w = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long prev = words.get(w);
+                while ((prev & mask) == 0 && !words.compareAndSet(w, prev, prev | mask)) {
+                    prev = words.get(w);
+                }
+            }
+        }
+
+        boolean mightContain(String email) {
+            long h1 = hash(email);
+            long h2 = mix(h1) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+            }
+            return true;
+        }
+
+        double expectedFpp() {
+            long set = 0;
+            for (int i = 0; i < words.length(); i++) set += Long.bitCount(words.get(i));
+            return Math.pow((double) set / bitCount, hashes);
+        }
+
+        // 64-bit FNV-1a over UTF-8, finished with a murmur3 mixer
+        private static long hash(String s) {
+            long h = 0xcbf29ce484222325L;
+            for (byte b : s.getBytes(StandardCharsets.UTF_8)) {
+                h ^= b;
+                h *= 0x100000001b3L;
+            }
+            return mix(h);
+        }
+
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package HotelApp.com.example.HotelApp.service;
+
+import HotelApp.com.example.HotelApp.model.ImageAsset;
+import HotelApp.com.example.HotelApp.storage.ContentHash;
+import HotelApp.com.example.HotelApp.storage.ImageStore;
+import HotelApp.com.example.HotelApp.storage.SpooledUpload;
+import HotelApp.com.example.HotelApp.storage.StoredImage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HexFormat;
+
+/**
+ * Content-hash deduplication in front of the ImageStore.
+ * Every upload is SHA-256 hashed as it is streamed; if image_assets already has that hash the stored URL is
+ * reused and nothing is uploaded. Each room image slot and profile picture holds one reference, taken by
+ * acquire() and dropped by release(). Assets left with no references for images.gc.grace-ms are removed from
+ * the store by a periodic sweep, so an edit that drops and re-adds a photo never loses it in between.
+ * Images stored before this index existed are not tracked and are simply never collected.
+ *
+ * The sweep tombstones an asset (deletingAt) before deleting its file and removes the document only afterwards.
+ * With a content-addressed store the same bytes map to the same file, so an upload of that content meanwhile
+ * must not reuse or re-store it: acquire() waits for the tombstone to go, then stores the file again.
+ */
+@Service
+public class ImageAssetService {
+
+    private static final long TOMBSTONE_POLL_MS = 50;
+
+    private final MongoTemplate mongoTemplate;
+    private final ImageStore imageStore;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter collected;
+
+    @Value("${images.gc.grace-ms:3600000}")
+    private long graceMs;
+
+    // A tombstone older than this was left by a sweep that died mid-delete and is finished by the next one
+    @Value("${images.gc.stale-tombstone-ms:300000}")
+    private long staleTombstoneMs;
+
+    // How long an upload waits for a sweep deleting the same content before giving up with 503
+    @Value("${images.gc.tombstone-wait-ms:5000}")
+    private long tombstoneWaitMs;
+
+    // Where a part is spooled on a miss, so a retried store() can read it again
+    @Value("${uploads.spool-dir:${java.io.tmpdir}}")
+    private String spoolDir;
+
+    public ImageAssetService(MongoTemplate mongoTemplate, ImageStore imageStore, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.imageStore = imageStore;
+        this.hits = Counter.builder("images.dedup").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("images.dedup").tag("result", "miss").register(meterRegistry);
+        this.collected = Counter.builder("images.gc.collected").register(meterRegistry);
+    }
+
+    // -------------------- ACQUIRE --------------------
+    // Returns the image for this content, uploading it only if no one has stored the same bytes before
+    public StoredImage acquire(MultipartFile file) throws IOException {
+        String hash = hash(file);
+
+        // store() may consume the part (transferTo moves it), so attempts read one spooled copy instead
+        try (SpooledUpload upload = new SpooledUpload(file, Path.of(spoolDir))) {
+            long deadline = System.currentTimeMillis() + tombstoneWaitMs;
+            StoredImage image;
+            while ((image = tryAcquire(hash, upload)) == null) {
+                // The sweep is deleting this content's file: wait until it is gone, then store it afresh
+                if (System.currentTimeMillis() > deadline)
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Image is being replaced, please try again");
+                try {
+                    Thread.sleep(TOMBSTONE_POLL_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while storing image");
+                }
+            }
+            return image;
+        }
+    }
+
+    // null = tombstoned, try again later
+    private StoredImage tryAcquire(String hash, MultipartFile file) throws IOException {
+        ImageAsset existing = addReference(hash);
+        if (existing != null) {
+            hits.increment();
+            return new StoredImage(existing.getUrl(), existing.getStoreKey());
+        }
+        // No live asset. If there is no document at all, the sweep has nothing to delete for this content until
+        // it has been unreferenced for the grace period, so the file stored below cannot be removed under us
+        if (mongoTemplate.exists(byHash(hash), ImageAsset.class)) return null;
+
+        misses.increment();
+        StoredImage stored = imageStore.store(file);
+        ImageAsset asset;
+        try {
+            asset = mongoTemplate.findAndModify(live(hash),
+                    new Update()
+                            .setOnInsert("url", stored.url())
+                            .setOnInsert("storeKey", stored.key())
+                            .inc("refCount", 1)
+                            .set("updatedAt", Instant.now()),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    ImageAsset.class);
+        } catch (DuplicateKeyException e) {
+            // Concurrent first upload of the same content won the insert; reference theirs instead
+            asset = addReference(hash);
+            if (asset == null) {
+                // Tombstoned meanwhile. Our upload is a separate object unless the store shares it by content
+                if (!imageStore.contentAddressed()) deleteQuietly(stored);
+                return null;
+            }
+        }
+
+        // Someone else stored the same bytes meanwhile: keep theirs, drop our copy (unless it is the same object)
+        if (!asset.getUrl().equals(stored.url())) deleteQuietly(stored);
+        return new StoredImage(asset.getUrl(), asset.getStoreKey());
+    }
+
+    private void deleteQuietly(StoredImage stored) {
+        try {
+            imageStore.delete(stored);
+        } catch (IOException e) {
+            System.out.println("Could not delete duplicate image " + stored.key() + ": " + e.getMessage());
+        }
+    }
+
+    private ImageAsset addReference(String hash) {
+        return mongoTemplate.findAndModify(live(hash),
+                new Update().inc("refCount", 1).set("updatedAt", Instant.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                ImageAsset.class);
+    }
+
+    // -------------------- RELEASE --------------------
+    // One reference per URL occurrence; unknown URLs (untracked legacy images) are ignored.
+    // Best-effort: callers release after their own write has succeeded, and a lost release only keeps an
+    // image that is no longer used, whereas failing the caller could make it roll back images it now points at
+    public void release(String url) {
+        if (url == null) return;
+        try {
+            mongoTemplate.updateFirst(new Query(Criteria.where("url").is(url)),
+                    new Update().inc("refCount", -1).set("updatedAt", Instant.now()),
+                    ImageAsset.class);
+        } catch (RuntimeException e) {
+            System.out.println("Could not release image " + url + ": " + e.getMessage());
+        }
+    }
+
+    public void releaseAll(Collection<String> urls) {
+        if (urls == null) return;
+        urls.forEach(this::release);
+    }
+
+    // -------------------- GARBAGE COLLECTION --------------------
+    // Tombstoning is conditional on the asset still being unreferenced, so a concurrent acquire wins
+    // and each asset is deleted by exactly one instance. The document goes only once the file is gone.
+    @Scheduled(fixedDelayString = "${images.gc.interval-ms:600000}")
+    public void collectGarbage() {
+        Instant now = Instant.now();
+        Query collectable = new Query(new Criteria().orOperator(
+                Criteria.where("refCount").lte(0).and("updatedAt").lt(now.minus(Duration.ofMillis(graceMs)))
+                        .and("deletingAt").is(null),
+                Criteria.where("deletingAt").lt(now.minus(Duration.ofMillis(staleTombstoneMs)))));
+
+        ImageAsset asset;
+        while ((asset = mongoTemplate.findAndModify(collectable, new Update().set("deletingAt", Instant.now()),
+                FindAndModifyOptions.options().returnNew(true), ImageAsset.class)) != null) {
+            try {
+                imageStore.delete(new StoredImage(asset.getUrl(), asset.getStoreKey()));
+            } catch (IOException | RuntimeException e) {
+                // Leave the tombstone: the next sweep after images.gc.stale-tombstone-ms tries again
+                System.out.println("Could not delete unreferenced image " + asset.getStoreKey() + ": " + e.getMessage());
+                continue;
+            }
+            mongoTemplate.remove(new Query(Criteria.where("_id").is(asset.getHash()).and("deletingAt").is(asset.getDeletingAt())),
+                    ImageAsset.class);
+            collected.increment();
+        }
+    }
+
+    // -------------------- HASHING --------------------
+    private static Query byHash(String hash) {
+        return new Query(Criteria.where("_id").is(hash));
+    }
+
+    // Not tombstoned; as an upsert filter it inserts a live asset or fails on the tombstone's _id
+    private static Query live(String hash) {
+        return new Query(Criteria.where("_id").is(hash).and("deletingAt").is(null));
+    }
+
+    // Streams the part once through SHA-256 in fixed-size chunks; the store reads it again only on a miss
+    static String hash(MultipartFile file) throws IOException {
+        MessageDigest digest = ContentHash.sha256();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,183 @@
+package HotelApp.com.example.HotelApp.service;
+
+import HotelApp.com.example.HotelApp.config.ThreadingConfig;
+import HotelApp.com.example.HotelApp.storage.StoredImage;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Uploads room photos exactly once, in parallel on a bounded pool, so a 10-photo room costs about one
+ * upload's latency. Each photo goes through ImageAssetService, so content that is already stored is only
+ * referenced, not uploaded again. The uploads of one request share a deadline (images.upload.timeout-ms).
+ * If any upload fails the others are cancelled and the references already taken are released;
+ * callers do the same via release() when saving the room fails afterwards. Cancelling does not stop a
+ * blocking store call, so an upload that finishes after the request gave up on it releases its own reference.
+ *
+ * Uploads are blocking network I/O, so the pool (images.upload.threads) is sized for concurrency
+ * rather than CPU; in virtual-thread mode its threads are virtual. When it and its queue are full
+ * the request gets 503.
+ */
+@Service
+public class ImageIngestionService {
+
+    private final ImageAssetService imageAssetService;
+    private final ThreadPoolExecutor executor;
+    private final Timer uploadTimer;
+
+    @Value("${images.upload.timeout-ms:30000}")
+    private long timeoutMs;
+
+    public ImageIngestionService(ImageAssetService imageAssetService,
+                                 ThreadingConfig threadingConfig,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${images.upload.threads:16}") int threads,
+                                 @Value("${images.upload.queue-capacity:128}") int queueCapacity) {
+        this.imageAssetService = imageAssetService;
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadingConfig.ioThreadFactory("image-upload-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.uploadTimer = Timer.builder("images.upload").register(meterRegistry);
+        Gauge.builder("images.upload.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    // -------------------- UPLOAD --------------------
+    // Same order as the input; empty files are skipped
+    public List<StoredImage> uploadAll(List<MultipartFile> files) {
+        if (files == null || files.isEmpty()) return List.of();
+
+        List<Upload> uploads = new ArrayList<>();
+        try {
+            for (MultipartFile file : files) {
+                if (file == null || file.isEmpty()) continue;
+                Upload upload = new Upload(file);
+                upload.future = executor.submit(upload);
+                uploads.add(upload);
+            }
+        } catch (RejectedExecutionException e) {
+            release(abort(uploads));
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many uploads in progress, please try again");
+        }
+
+        // One deadline from submission for the whole batch, not timeoutMs per get() in sequence
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        List<StoredImage> uploaded = new ArrayList<>();
+        for (Upload upload : uploads) {
+            try {
+                uploaded.add(upload.future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                release(abort(uploads));
+                throw new RuntimeException("Failed to upload image: timed out after " + timeoutMs + " ms");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                release(abort(uploads));
+                throw new RuntimeException("Failed to upload image: interrupted");
+            } catch (ExecutionException e) {
+                release(abort(uploads));
+                throw new RuntimeException("Failed to upload image: " + e.getCause().getMessage());
+            }
+        }
+        return uploaded;
+    }
+
+    // Cancel what has not finished; return every upload that did complete so it can be released
+    private List<StoredImage> abort(List<Upload> uploads) {
+        List<StoredImage> finished = new ArrayList<>();
+        for (Upload upload : uploads) {
+            if (upload.abandon()) continue;
+            StoredImage image = upload.result();
+            if (image != null) finished.add(image);
+        }
+        return finished;
+    }
+
+    // One photo. Whoever claims it first owns the reference it takes: the request, once the upload has finished,
+    // or the task itself when it finishes after the request abandoned it
+    private final class Upload implements Callable<StoredImage> {
+        private final MultipartFile file;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private Future<StoredImage> future;
+
+        Upload(MultipartFile file) {
+            this.file = file;
+        }
+
+        @Override
+        public StoredImage call() throws Exception {
+            StoredImage image = uploadTimer.recordCallable(() -> imageAssetService.acquire(file));
+            if (!claimed.compareAndSet(false, true)) {
+                // Abandoned while the store call was running
+                imageAssetService.release(image.url());
+            }
+            return image;
+        }
+
+        // true if the upload had not finished; the task then releases whatever it still gets
+        boolean abandon() {
+            if (!claimed.compareAndSet(false, true)) return false;
+            future.cancel(true);
+            return true;
+        }
+
+        // The finished upload's image (claimed, so it is returning); null if it failed
+        StoredImage result() {
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    try {
+                        return future.get();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    } catch (ExecutionException | CancellationException e) {
+                        return null;
+                    }
+                }
+            } finally {
+                if (interrupted) Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // -------------------- ROLLBACK --------------------
+    // Best effort: a failed release only delays garbage collection of that image
+    public void release(List<StoredImage> images) {
+        for (StoredImage image : images) {
+            try {
+                imageAssetService.release(image.url());
+            } catch (Exception e) {
+                System.out.println("Could not release uploaded image " + image.key() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public static List<String> urls(List<StoredImage> images) {
+        return images.stream().map(StoredImage::url).toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,94 @@
+package HotelApp.com.example.HotelApp.service;
+
+import HotelApp.com.example.HotelApp.model.JobLease;
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Distributed lease for scheduled jobs, stored in the job_leases collection.
+ * Acquisition is a single conditional findAndModify (free or expired → take it and bump the fencing token),
+ * so at most one instance holds a lease at a time. Holders renew between units of work and stop
+ * as soon as a renewal fails; downstream writes can compare the fencing token to reject a stale holder.
+ */
+@Service
+public class JobLeaseService {
+
+    private final MongoTemplate mongoTemplate;
+    private final String ownerId;
+
+    @Value("${jobs.lease.ttl-ms:600000}")
+    private long leaseTtlMs;
+
+    public JobLeaseService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.ownerId = hostName() + "-" + UUID.randomUUID();
+    }
+
+    // -------------------- ACQUIRE / RENEW / RELEASE --------------------
+    // Returns the lease if this instance now holds it, or null if another instance does
+    public JobLease tryAcquire(String name) {
+        Instant now = Instant.now();
+        Query query = new Query(Criteria.where("_id").is(name).orOperator(
+                Criteria.where("expiresAt").lt(now),
+                Criteria.where("owner").is(ownerId)));
+        Update update = new Update()
+                .set("owner", ownerId)
+                .set("expiresAt", now.plusMillis(leaseTtlMs))
+                .inc("token", 1);
+        try {
+            return mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), JobLease.class);
+        } catch (DuplicateKeyException e) {
+            // The document exists and is held by someone else, so the upsert tried to insert a second one
+            return null;
+        }
+    }
+
+    // Extends the lease; false means it was lost (expired and taken over) and the caller must stop
+    public boolean renew(JobLease lease) {
+        Instant expiresAt = Instant.now().plusMillis(leaseTtlMs);
+        UpdateResult result = mongoTemplate.updateFirst(heldBy(lease), new Update().set("expiresAt", expiresAt), JobLease.class);
+        if (result.getMatchedCount() == 0) return false;
+        lease.setExpiresAt(expiresAt);
+        return true;
+    }
+
+    // Raises the token of a lease we hold above one already written downstream (left by a lease document that
+    // was deleted and re-created with token 1); false means the lease was lost meanwhile
+    public boolean advancePast(JobLease lease, long token) {
+        if (lease.getToken() > token) return true;
+        UpdateResult result = mongoTemplate.updateFirst(heldBy(lease), new Update().set("token", token + 1), JobLease.class);
+        if (result.getMatchedCount() == 0) return false;
+        lease.setToken(token + 1);
+        return true;
+    }
+
+    public void release(JobLease lease) {
+        mongoTemplate.updateFirst(heldBy(lease), new Update().set("expiresAt", Instant.now()), JobLease.class);
+    }
+
+    private Query heldBy(JobLease lease) {
+        return new Query(Criteria.where("_id").is(lease.getName())
+                .and("owner").is(ownerId)
+                .and("token").is(lease.getToken()));
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown-host";
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package HotelApp.com.example.HotelApp.service;
+
+import HotelApp.com.example.HotelApp.dto.BookingArchiveDTO;
+import HotelApp.com.example.HotelApp.dto.BookingResponseDTO;
+import HotelApp.com.example.HotelApp.dto.RoomResponseDTO;
+import HotelApp.com.example.HotelApp.dto.SellerBookingDTO;
+import HotelApp.com.example.HotelApp.model.Booking;
+import HotelApp.com.example.HotelApp.model.BookingArchive;
+import HotelApp.com.example.HotelApp.model.Room;
+import HotelApp.com.example.HotelApp.repository.ReactiveBookingArchiveRepository;
+import HotelApp.com.example.HotelApp.repository.ReactiveBookingRepository;
+import HotelApp.com.example.HotelApp.repository.ReactiveRoomRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Streaming counterparts of the list endpoints, read through the reactive Mongo driver.
+ * Documents are mapped and emitted as the cursor delivers them, and the cursor only fetches as fast as the
+ * client consumes, so memory per request stays constant however many rows match.
+ * Room details for booking rows are joined per window of streams.join-window rows: RoomCache first,
+ * then one projected $in query for the rest (the reactive version of RoomBatchLoader).
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveListingService {
+
+    private final ReactiveRoomRepository roomRepository;
+    private final ReactiveBookingRepository bookingRepository;
+    private final ReactiveBookingArchiveRepository bookingArchiveRepository;
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final RoomCache roomCache;
+
+    @Value("${streams.join-window:64}")
+    private int joinWindow;
+
+    // -------------------- ROOMS --------------------
+    public Flux<RoomResponseDTO> streamAllRooms() {
+        return roomRepository.findAll().map(DtoMappers::toRoomDTO);
+    }
+
+    // -------------------- USER BOOKINGS --------------------
+    public Flux<BookingResponseDTO> streamBookingsByUser(String userId) {
+        return bookingRepository.findByUserId(userId)
+                .buffer(joinWindow)
+                .concatMap(window -> loadRooms(window.stream().map(Booking::getRoomId).toList())
+                        .flatMapIterable(rooms -> window.stream().map(b -> DtoMappers.toBookingDTO(b, rooms.get(b.getRoomId()))).toList()));
+    }
+
+    // imageUrl is stored on the archive row; only older rows without it need the room
+    public Flux<BookingArchiveDTO> streamArchivedBookingsByUser(String userId) {
+        return bookingArchiveRepository.findByUserId(userId)
+                .buffer(joinWindow)
+                .concatMap(window -> loadRooms(window.stream()
+                                .filter(b -> b.getImageUrl() == null)
+                                .map(BookingArchive::getRoomId)
+                                .toList())
+                        .flatMapIterable(rooms -> window.stream()
+                                .map(b -> DtoMappers.toArchiveDTO(b, b.getImageUrl() != null
+                                        ? b.getImageUrl()
+                                        : RoomBatchLoader.firstImage(rooms.get(b.getRoomId()))))
+                                .toList()));
+    }
+
+    // -------------------- SELLER BOOKINGS --------------------
+    // The seller's rooms (id → first image) are small and loaded up front; their bookings are streamed
+    public Flux<SellerBookingDTO> streamBookingsForSeller(String sellerId) {
+        Query query = new Query(Criteria.where("sellerId").is(sellerId));
+        query.fields().include("_id").slice("images", 1);
+
+        return reactiveMongoTemplate.find(query, Room.class)
+                .collect(HashMap<String, String>::new, (images, room) -> images.put(room.getId(), RoomBatchLoader.firstImage(room)))
+                .flatMapMany(roomImages -> roomImages.isEmpty()
+                        ? Flux.empty()
+                        : bookingRepository.findByRoomIdIn(roomImages.keySet())
+                                .map(b -> DtoMappers.toSellerDTO(b, roomImages.get(b.getRoomId()))));
+    }
+
+    // -------------------- ROOM JOIN --------------------
+    // roomId → room (price, location, first image) for one window; unknown ids are simply absent
+    private Mono<Map<String, Room>> loadRooms(List<String> roomIds) {
+        Set<String> missing = new HashSet<>();
+        roomIds.stream().filter(Objects::nonNull).forEach(missing::add);
+        if (missing.isEmpty()) return Mono.just(Map.of());
+
+        Map<String, Room> rooms = new HashMap<>(roomCache.getAllPresent(missing));
+        missing.removeAll(rooms.keySet());
+        if (missing.isEmpty()) return Mono.just(rooms);
+
+        Query query = new Query(Criteria.where("_id").in(missing));
+        query.fields().include("price", "location").slice("images", 1);
+        return reactiveMongoTemplate.find(query, Room.class)
+                .collect(() -> rooms, (map, room) -> map.put(room.getId(), room));
+    }
+}
@@ -0,0 +1,148 @@
+package HotelApp.com.example.HotelApp.service;
+
+import HotelApp.com.example.HotelApp.model.Booking;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Per-room interval index over live bookings, used to answer "is this room free between these dates"
+ * without a database round trip. Intervals are inclusive on both ends, same as
+ * RoomCalendarService.
+ */
+@Service
+@RequiredArgsConstructor
+public class RoomAvailabilityIndex {
+
+    private final MongoTemplate mongoTemplate;
+
+    private volatile Map<String, RoomStays> byRoom = new ConcurrentHashMap<>();
+    // Non-null while reload() streams the collection; writes go to both maps meanwhile
+    private volatile Map<String, RoomStays> building;
+    // bookingId → roomId removed during a reload: the stream may have read them before the delete
+    private final Map<String, String> removedWhileBuilding = new ConcurrentHashMap<>();
+
+    // -------------------- LOADING --------------------
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${rooms.availability.refresh-ms:300000}", initialDelayString = "${rooms.availability.refresh-ms:300000}")
+    public synchronized void reload() {
+        Query query = new Query();
+        query.fields().include("roomId", "bookingDate", "leavingDate");
+
+        Map<String, RoomStays> fresh = new ConcurrentHashMap<>();
+        removedWhileBuilding.clear();
+        building = fresh;
+        try {
+            try (Stream<Booking> stream = mongoTemplate.stream(query, Booking.class)) {
+                stream.forEach(b -> put(fresh, b));
+            }
+            removedWhileBuilding.forEach((bookingId, roomId) -> remove(fresh, roomId, bookingId));
+            byRoom = fresh;
+        } finally {
+            building = null;
+        }
+    }
+
+    // -------------------- WRITES --------------------
+    // building is read before byRoom: once a writer sees it cleared, the swap to the fresh map is visible too
+    public void add(Booking booking) {
+        Map<String, RoomStays> next = building;
+        put(byRoom, booking);
+        if (next != null) put(next, booking);
+    }
+
+    public void remove(Booking booking) {
+        Map<String, RoomStays> next = building;
+        if (next != null) removedWhileBuilding.put(booking.getId(), booking.getRoomId());
+        remove(byRoom, booking.getRoomId(), booking.getId());
+        if (next != null) remove(next, booking.getRoomId(), booking.getId());
+    }
+
+    public void removeAll(Collection<Booking> bookings) {
+        for (Booking booking : bookings) remove(booking);
+    }
+
+    private static void put(Map<String, RoomStays> index, Booking booking) {
+        index.computeIfAbsent(booking.getRoomId(), k -> new RoomStays()).put(booking);
+    }
+
+    private static void remove(Map<String, RoomStays> index, String roomId, String bookingId) {
+        RoomStays stays = index.get(roomId);
+        if (stays != null) stays.remove(bookingId);
+    }
+
+    // -------------------- QUERIES --------------------
+    public boolean isFree(String roomId, LocalDate checkIn, LocalDate checkOut) {
+        RoomStays stays = byRoom.get(roomId);
+        return stays == null || !stays.overlaps(checkIn.toEpochDay(), checkOut.toEpochDay());
+    }
+
+    /**
+     * Bookings of one room, kept as arrays sorted by start day with a running max of end days.
+     * A range [from, to] overlaps some stay iff the last stay starting on or before `to`
+     * has a running max end on or after `from`.
+     */
+    private static final class RoomStays {
+        private final Map<String, long[]> byBookingId = new HashMap<>();
+        private long[] starts = new long[0];
+        private long[] maxEnds = new long[0];
+
+        synchronized void put(Booking booking) {
+            byBookingId.put(booking.getId(), new long[]{
+                    booking.getBookingDate().toEpochDay(),
+                    booking.getLeavingDate().toEpochDay()
+            });
+            rebuild();
+        }
+
+        synchronized void remove(String bookingId) {
+            if (byBookingId.remove(bookingId) != null) rebuild();
+        }
+
+        synchronized boolean overlaps(long from, long to) {
+            int idx = upperBound(starts, to) - 1;
+            return idx >= 0 && maxEnds[idx] >= from;
+        }
+
+        private void rebuild() {
+            long[][] stays = byBookingId.values().toArray(new long[0][]);
+            Arrays.sort(stays, (a, b) -> Long.compare(a[0], b[0]));
+            long[] s = new long[stays.length];
+            long[] m = new long[stays.length];
+            long runningMax = Long.MIN_VALUE;
+            for (int i = 0; i < stays.length; i++) {
+                s[i] = stays[i][0];
+                runningMax = Math.max(runningMax, stays[i][1]);
+                m[i] = runningMax;
+            }
+            starts = s;
+            maxEnds = m;
+        }
+
+        // first index with value > key
+        private static int upperBound(long[] a, long key) {
+            int lo = 0, hi = a.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (a[mid] <= key) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+    }
+}
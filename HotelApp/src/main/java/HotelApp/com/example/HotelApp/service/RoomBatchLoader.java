@@ -0,0 +1,61 @@
+package HotelApp.com.example.HotelApp.service;
+
+import HotelApp.com.example.HotelApp.model.Room;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Request-scoped room loader for listing endpoints (DataLoader style).
+ * Collects room ids, takes what it can from RoomCache, fetches the rest with a single $in query
+ * projected to the fields listings show, and memoises the result for the rest of the request.
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+public class RoomBatchLoader {
+
+    private final MongoTemplate mongoTemplate;
+    private final RoomCache roomCache;
+
+    // roomId → room, null value = looked up and not found
+    private final Map<String, Room> loaded = new HashMap<>();
+
+    public Map<String, Room> loadAll(Collection<String> roomIds) {
+        Set<String> missing = new HashSet<>();
+        for (String id : roomIds) {
+            if (id != null && !loaded.containsKey(id)) missing.add(id);
+        }
+
+        if (!missing.isEmpty()) {
+            Map<String, Room> cached = roomCache.getAllPresent(missing);
+            loaded.putAll(cached);
+            missing.removeAll(cached.keySet());
+        }
+
+        if (!missing.isEmpty()) {
+            Query query = new Query(Criteria.where("_id").in(missing));
+            query.fields().include("price", "location").slice("images", 1);
+            for (Room room : mongoTemplate.find(query, Room.class)) {
+                loaded.put(room.getId(), room);
+            }
+            for (String id : missing) loaded.putIfAbsent(id, null);
+        }
+        return loaded;
+    }
+
+    public static String firstImage(Room room) {
+        return room != null && room.getImages() != null && !room.getImages().isEmpty()
+                ? room.getImages().get(0)
+                : null;
+    }
+}
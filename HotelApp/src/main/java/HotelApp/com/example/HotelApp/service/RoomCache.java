@@ -0,0 +1,62 @@
+package HotelApp.com.example.HotelApp.service;
+
+import HotelApp.com.example.HotelApp.model.Room;
+import HotelApp.com.example.HotelApp.repository.RoomRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded room cache (Caffeine, W-TinyLFU eviction) in front of RoomRepository.findById.
+ * Populated on read; AuthService writes through on addRoom/updateRoom and evicts on deleteRoom.
+ * Entries also expire after rooms.cache.ttl-ms so edits made on other instances show up within that window.
+ * Cached rooms are shared instances: read them, never modify them.
+ * Hit/miss/eviction counts are published to Micrometer as cache.* metrics with cache=rooms.
+ */
+@Service
+public class RoomCache {
+
+    private final RoomRepository roomRepository;
+    private final Cache<String, Room> cache;
+
+    public RoomCache(RoomRepository roomRepository,
+                     MeterRegistry meterRegistry,
+                     @Value("${rooms.cache.max-size:10000}") long maxSize,
+                     @Value("${rooms.cache.ttl-ms:600000}") long ttlMs) {
+        this.roomRepository = roomRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "rooms");
+    }
+
+    // -------------------- READ --------------------
+    public Optional<Room> get(String roomId) {
+        if (roomId == null) return Optional.empty();
+        return Optional.ofNullable(cache.get(roomId, id -> roomRepository.findById(id).orElse(null)));
+    }
+
+    // Cached entries only, no loading; for callers that batch their own misses
+    public Map<String, Room> getAllPresent(Collection<String> roomIds) {
+        return cache.getAllPresent(roomIds);
+    }
+
+    // -------------------- WRITE --------------------
+    public void put(Room room) {
+        cache.put(room.getId(), room);
+    }
+
+    public void evict(String roomId) {
+        cache.invalidate(roomId);
+    }
+}
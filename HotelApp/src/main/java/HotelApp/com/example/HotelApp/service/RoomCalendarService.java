@@ -0,0 +1,257 @@
+package HotelApp.com.example.HotelApp.service;
+
+import HotelApp.com.example.HotelApp.dto.RoomCalendarDTO;
+import HotelApp.com.example.HotelApp.model.Booking;
+import HotelApp.com.example.HotelApp.model.RoomCalendar;
+import HotelApp.com.example.HotelApp.repository.BookingRepository;
+import HotelApp.com.example.HotelApp.repository.RoomCalendarRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-room occupancy calendar stored as a bitmap of days over a rolling horizon.
+ * A day is booked if any booking covers it, with both bookingDate and leavingDate included
+ * (same overlap rule as SellerBookingService's date filter), so conflict checks and
+ * reservations are a handful of long mask operations.
+ */
+@Service
+@RequiredArgsConstructor
+public class RoomCalendarService {
+
+    public static final int HORIZON_DAYS = 540;
+
+    // baseDay is aligned down to 64, so one spare word keeps today + HORIZON_DAYS in range
+    static final int WORDS = (HORIZON_DAYS + 63) / 64 + 1;
+
+    static final int MAX_ATTEMPTS = 12;
+    static final long BASE_BACKOFF_MS = 1;
+    static final long MAX_BACKOFF_MS = 64;
+
+    private final RoomCalendarRepository roomCalendarRepository;
+    private final BookingRepository bookingRepository;
+
+    // -------------------- RESERVE / RELEASE --------------------
+    // Read, check, then write back conditionally on the version we read. If another request (on any node)
+    // wrote in between, the save is rejected and we retry against the fresh calendar.
+    public void reserve(String roomId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+
+        for (int attempt = 0; ; attempt++) {
+            RoomCalendar calendar = load(roomId);
+            int fromBit = bit(calendar, from);
+            int toBit = bit(calendar, to);
+
+            if (anySet(calendar.getDays(), fromBit, toBit)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Room already booked for selected dates");
+            }
+            setRange(calendar.getDays(), fromBit, toBit);
+
+            try {
+                roomCalendarRepository.save(calendar);
+                return;
+            } catch (OptimisticLockingFailureException | DuplicateKeyException e) {
+                backoff(attempt);
+            }
+        }
+    }
+
+    public void release(String roomId, LocalDate from, LocalDate to) {
+        mark(roomId, from, to, false);
+    }
+
+    // Puts back nights released for a cancellation that then failed; no checks, the booking still holds them
+    public void restore(String roomId, LocalDate from, LocalDate to) {
+        mark(roomId, from, to, true);
+    }
+
+    // For compensating a failed booking write, where an exception would hide the original failure: if the
+    // calendar cannot be updated it is dropped and rebuilt from live bookings on next use. A reservation made
+    // in the instant before the rebuild but not yet saved as a booking is not in it, so this is a last resort.
+    public void releaseOrRebuild(String roomId, LocalDate from, LocalDate to) {
+        repairing(roomId, () -> release(roomId, from, to));
+    }
+
+    public void restoreOrRebuild(String roomId, LocalDate from, LocalDate to) {
+        repairing(roomId, () -> restore(roomId, from, to));
+    }
+
+    private void repairing(String roomId, Runnable update) {
+        try {
+            update.run();
+        } catch (RuntimeException e) {
+            System.out.println("Could not update calendar of room " + roomId + ", rebuilding it: " + e.getMessage());
+            try {
+                deleteCalendar(roomId);
+            } catch (RuntimeException again) {
+                System.out.println("Could not drop calendar of room " + roomId + ": " + again.getMessage());
+            }
+        }
+    }
+
+    // No stored calendar means the next load() builds it from bookings, which already reflects the change
+    private void mark(String roomId, LocalDate from, LocalDate to, boolean booked) {
+        for (int attempt = 0; ; attempt++) {
+            RoomCalendar calendar = roomCalendarRepository.findById(roomId).orElse(null);
+            if (calendar == null) return;
+
+            roll(calendar, LocalDate.now().toEpochDay());
+            int[] bits = clip(calendar, from, to);
+            if (bits == null) return;
+            if (booked) setRange(calendar.getDays(), bits[0], bits[1]);
+            else clearRange(calendar.getDays(), bits[0], bits[1]);
+
+            try {
+                roomCalendarRepository.save(calendar);
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                backoff(attempt);
+            }
+        }
+    }
+
+    // Exponential backoff with full jitter; gives up with 409 once the room is too hot to win a write
+    private static void backoff(int attempt) {
+        if (attempt + 1 >= MAX_ATTEMPTS) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Room is busy, please try again");
+        }
+        long ceiling = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << attempt);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while reserving room");
+        }
+    }
+
+    public void deleteCalendar(String roomId) {
+        roomCalendarRepository.deleteById(roomId);
+    }
+
+    // -------------------- MONTH VIEW --------------------
+    public RoomCalendarDTO getMonth(String roomId, YearMonth month) {
+        RoomCalendar calendar = load(roomId);
+        long[] words = calendar.getDays();
+        long limit = (long) words.length * 64;
+
+        List<Integer> booked = new ArrayList<>();
+        for (int day = 1; day <= month.lengthOfMonth(); day++) {
+            long offset = month.atDay(day).toEpochDay() - calendar.getBaseDay();
+            if (offset >= 0 && offset < limit && (words[(int) (offset >>> 6)] & (1L << offset)) != 0) {
+                booked.add(day);
+            }
+        }
+        return new RoomCalendarDTO(roomId, month.toString(), booked);
+    }
+
+    // -------------------- LOADING --------------------
+    RoomCalendar load(String roomId) {
+        long today = LocalDate.now().toEpochDay();
+        RoomCalendar calendar = roomCalendarRepository.findById(roomId)
+                .orElseGet(() -> buildFromBookings(roomId, today));
+        roll(calendar, today);
+        return calendar;
+    }
+
+    // First touch of a room: derive the bitmap from its live bookings
+    private RoomCalendar buildFromBookings(String roomId, long today) {
+        RoomCalendar calendar = new RoomCalendar(roomId, alignedBase(today), new long[WORDS], null);
+        for (Booking b : bookingRepository.findByRoomId(roomId)) {
+            int[] bits = clip(calendar, b.getBookingDate(), b.getLeavingDate());
+            if (bits != null) setRange(calendar.getDays(), bits[0], bits[1]);
+        }
+        return calendar;
+    }
+
+    // Slide the horizon forward in whole words; days that fall off the front are in the past
+    static void roll(RoomCalendar calendar, long today) {
+        long base = alignedBase(today);
+        long[] words = calendar.getDays();
+        if (words == null || words.length != WORDS) {
+            words = resize(words);
+        }
+        long shiftWords = (base - calendar.getBaseDay()) / 64;
+        if (shiftWords > 0) {
+            long[] shifted = new long[WORDS];
+            for (int i = (int) Math.min(shiftWords, WORDS); i < WORDS; i++) {
+                shifted[i - (int) shiftWords] = words[i];
+            }
+            words = shifted;
+            calendar.setBaseDay(base);
+        }
+        calendar.setDays(words);
+    }
+
+    private static long[] resize(long[] words) {
+        long[] resized = new long[WORDS];
+        if (words != null) System.arraycopy(words, 0, resized, 0, Math.min(words.length, WORDS));
+        return resized;
+    }
+
+    static long alignedBase(long epochDay) {
+        return Math.floorDiv(epochDay, 64) * 64;
+    }
+
+    // -------------------- BIT HELPERS --------------------
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Booking and leaving dates are required");
+        if (to.isBefore(from))
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Leaving date must not be before booking date");
+
+        LocalDate today = LocalDate.now();
+        if (from.isBefore(today))
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Booking date cannot be in the past");
+        if (to.isAfter(today.plusDays(HORIZON_DAYS)))
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Bookings can only be made up to " + HORIZON_DAYS + " days ahead");
+    }
+
+    private static int bit(RoomCalendar calendar, LocalDate date) {
+        return (int) (date.toEpochDay() - calendar.getBaseDay());
+    }
+
+    // Bit range of [from, to] clipped to the calendar window, or null if nothing is inside it
+    private static int[] clip(RoomCalendar calendar, LocalDate from, LocalDate to) {
+        long max = (long) calendar.getDays().length * 64 - 1;
+        long lo = Math.max(0, from.toEpochDay() - calendar.getBaseDay());
+        long hi = Math.min(max, to.toEpochDay() - calendar.getBaseDay());
+        return lo > hi ? null : new int[]{(int) lo, (int) hi};
+    }
+
+    // All three work on the inclusive bit range [fromBit, toBit]
+    static boolean anySet(long[] words, int fromBit, int toBit) {
+        for (int w = fromBit >>> 6; w <= toBit >>> 6; w++) {
+            if ((words[w] & mask(w, fromBit, toBit)) != 0) return true;
+        }
+        return false;
+    }
+
+    static void setRange(long[] words, int fromBit, int toBit) {
+        for (int w = fromBit >>> 6; w <= toBit >>> 6; w++) {
+            words[w] |= mask(w, fromBit, toBit);
+        }
+    }
+
+    static void clearRange(long[] words, int fromBit, int toBit) {
+        for (int w = fromBit >>> 6; w <= toBit >>> 6; w++) {
+            words[w] &= ~mask(w, fromBit, toBit);
+        }
+    }
+
+    private static long mask(int word, int fromBit, int toBit) {
+        long mask = -1L;
+        if (word == fromBit >>> 6) mask &= -1L << (fromBit & 63);
+        if (word == toBit >>> 6) mask &= -1L >>> (63 - (toBit & 63));
+        return mask;
+    }
+}
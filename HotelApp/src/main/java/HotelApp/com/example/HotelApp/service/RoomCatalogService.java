@@ -0,0 +1,137 @@
+package HotelApp.com.example.HotelApp.service;
+
+import HotelApp.com.example.HotelApp.dto.RoomPageDTO;
+import HotelApp.com.example.HotelApp.dto.RoomResponseDTO;
+import HotelApp.com.example.HotelApp.model.Room;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Keyset (cursor) pagination over the rooms collection.
+ * Each page is one indexed range query with a projection, so cost does not grow with the catalog size.
+ */
+@Service
+@RequiredArgsConstructor
+public class RoomCatalogService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final MongoTemplate mongoTemplate;
+
+    public enum RoomSort {
+        NEWEST, OLDEST, PRICE_ASC, PRICE_DESC;
+
+        static RoomSort parse(String value) {
+            if (value == null || value.isBlank()) return NEWEST;
+            try {
+                return RoomSort.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown sort: " + value);
+            }
+        }
+
+        boolean byPrice() {
+            return this == PRICE_ASC || this == PRICE_DESC;
+        }
+
+        boolean ascending() {
+            return this == OLDEST || this == PRICE_ASC;
+        }
+    }
+
+    // -------------------- PAGE --------------------
+    public RoomPageDTO getRoomsPage(String sortParam, Integer limitParam, String cursor) {
+        RoomSort sort = RoomSort.parse(sortParam);
+        int limit = limitParam == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limitParam, MAX_PAGE_SIZE));
+
+        Query query = new Query();
+        if (sort.byPrice()) {
+            // Keyset on (price, _id) needs a total order, so rooms without a price are left out of price sorts
+            query.addCriteria(Criteria.where("price").ne(null));
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            query.addCriteria(afterCursor(sort, decodeCursor(sort, cursor)));
+        }
+
+        Sort.Direction direction = sort.ascending() ? Sort.Direction.ASC : Sort.Direction.DESC;
+        query.with(sort.byPrice()
+                ? Sort.by(direction, "price").and(Sort.by(direction, "_id"))
+                : Sort.by(direction, "_id"));
+        query.limit(limit + 1); // one extra row tells us whether another page exists
+
+        // Only the fields the room list renders
+        query.fields().include("hotelName", "location", "roomType", "images", "price", "available");
+
+        List<Room> rows = mongoTemplate.find(query, Room.class);
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) rows = rows.subList(0, limit);
+
+        List<RoomResponseDTO> rooms = rows.stream().map(this::toSummary).toList();
+        String nextCursor = hasMore ? encodeCursor(sort, rows.get(rows.size() - 1)) : null;
+
+        return new RoomPageDTO(rooms, nextCursor, hasMore);
+    }
+
+    // -------------------- KEYSET --------------------
+    private Criteria afterCursor(RoomSort sort, CursorKey key) {
+        if (!sort.byPrice()) {
+            return sort.ascending()
+                    ? Criteria.where("_id").gt(key.id())
+                    : Criteria.where("_id").lt(key.id());
+        }
+        if (sort.ascending()) {
+            return new Criteria().orOperator(
+                    Criteria.where("price").gt(key.price()),
+                    Criteria.where("price").is(key.price()).and("_id").gt(key.id()));
+        }
+        return new Criteria().orOperator(
+                Criteria.where("price").lt(key.price()),
+                Criteria.where("price").is(key.price()).and("_id").lt(key.id()));
+    }
+
+    private record CursorKey(Double price, String id) {}
+
+    // Cursor format before encoding: SORT|price|id (price empty for _id sorts)
+    private String encodeCursor(RoomSort sort, Room last) {
+        String price = sort.byPrice() ? String.valueOf(last.getPrice()) : "";
+        String raw = sort.name() + "|" + price + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private CursorKey decodeCursor(RoomSort sort, String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3 || !sort.name().equals(parts[0]) || parts[2].isEmpty()) {
+                throw new IllegalArgumentException("cursor does not match sort");
+            }
+            Double price = sort.byPrice() ? Double.valueOf(parts[1]) : null;
+            return new CursorKey(price, parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    private RoomResponseDTO toSummary(Room room) {
+        RoomResponseDTO dto = new RoomResponseDTO();
+        dto.setId(room.getId());
+        dto.setHotelName(room.getHotelName());
+        dto.setLocation(room.getLocation());
+        dto.setRoomType(room.getRoomType());
+        dto.setImages(room.getImages());
+        dto.setPrice(room.getPrice());
+        dto.setAvailable(room.isAvailable());
+        return dto;
+    }
+}
@@ -0,0 +1,285 @@
+package HotelApp.com.example.HotelApp.service;
+
+import HotelApp.com.example.HotelApp.dto.RoomResponseDTO;
+import HotelApp.com.example.HotelApp.model.Room;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * In-memory search index over rooms.
+ * Every room gets a dense slot number; location and roomType are inverted indexes (value → BitSet of slots),
+ * price is a sorted primitive array for range lookups (rooms without a price are left out of it, so they never
+ * match a price bound), and filters are combined by BitSet intersection.
+ * Kept current by AuthService on add/update/delete and fully reloaded on a fixed delay to pick up
+ * changes made by other instances.
+ */
+@Service
+@RequiredArgsConstructor
+public class RoomSearchIndex {
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // slot → room, slot lookup by id, and recycled slots
+    private final List<RoomResponseDTO> rooms = new ArrayList<>();
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    private final Map<String, BitSet> byLocation = new HashMap<>();
+    private final Map<String, BitSet> byRoomType = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final BitSet available = new BitSet();
+    private final BitSet priced = new BitSet();
+
+    // Sorted price column, rebuilt lazily after writes
+    private double[] sortedPrices = new double[0];
+    private int[] slotsByPrice = new int[0];
+    private volatile boolean priceDirty = false;
+
+    // Non-null while reload() streams the collection: room id → last write (null = removed), replayed over
+    // the streamed snapshot so a write the cursor missed, or a delete of a room it already read, is not lost
+    private Map<String, Room> writtenWhileLoading;
+
+    // -------------------- LOADING --------------------
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${rooms.search.refresh-ms:300000}", initialDelayString = "${rooms.search.refresh-ms:300000}")
+    public synchronized void reload() {
+        lock.writeLock().lock();
+        try {
+            writtenWhileLoading = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Room> all = new ArrayList<>();
+        try (Stream<Room> stream = mongoTemplate.stream(new Query(), Room.class)) {
+            stream.forEach(all::add);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                writtenWhileLoading = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            rooms.clear();
+            slotById.clear();
+            freeSlots.clear();
+            byLocation.clear();
+            byRoomType.clear();
+            live.clear();
+            available.clear();
+            priced.clear();
+            for (Room room : all) {
+                put(room);
+            }
+            writtenWhileLoading.forEach((roomId, room) -> {
+                removeSlot(roomId);
+                if (room != null) put(room);
+            });
+            writtenWhileLoading = null;
+            rebuildPrices();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // -------------------- WRITES --------------------
+    public void index(Room room) {
+        lock.writeLock().lock();
+        try {
+            removeSlot(room.getId());
+            put(room);
+            if (writtenWhileLoading != null) writtenWhileLoading.put(room.getId(), room);
+            priceDirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String roomId) {
+        lock.writeLock().lock();
+        try {
+            removeSlot(roomId);
+            if (writtenWhileLoading != null) writtenWhileLoading.put(roomId, null);
+            priceDirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Room room) {
+        int slot;
+        if (!freeSlots.isEmpty()) {
+            slot = freeSlots.pop();
+            rooms.set(slot, DtoMappers.toRoomDTO(room));
+        } else {
+            slot = rooms.size();
+            rooms.add(DtoMappers.toRoomDTO(room));
+        }
+        slotById.put(room.getId(), slot);
+        live.set(slot);
+        if (room.isAvailable()) available.set(slot);
+        if (room.getPrice() != null && !room.getPrice().isNaN()) priced.set(slot);
+        byLocation.computeIfAbsent(normalise(room.getLocation()), k -> new BitSet()).set(slot);
+        byRoomType.computeIfAbsent(normalise(room.getRoomType()), k -> new BitSet()).set(slot);
+    }
+
+    private void removeSlot(String roomId) {
+        Integer slot = slotById.remove(roomId);
+        if (slot == null) return;
+
+        RoomResponseDTO old = rooms.get(slot);
+        clearBit(byLocation, normalise(old.getLocation()), slot);
+        clearBit(byRoomType, normalise(old.getRoomType()), slot);
+        live.clear(slot);
+        available.clear(slot);
+        priced.clear(slot);
+        rooms.set(slot, null);
+        freeSlots.push(slot);
+    }
+
+    private static void clearBit(Map<String, BitSet> index, String key, int slot) {
+        BitSet bits = index.get(key);
+        if (bits == null) return;
+        bits.clear(slot);
+        if (bits.isEmpty()) index.remove(key);
+    }
+
+    // Primitive sort of the prices, then each slot is placed at its price's first position plus the number of
+    // equal prices placed before it (slot order within a price)
+    private void rebuildPrices() {
+        int n = priced.cardinality();
+        double[] sorted = new double[n];
+        int i = 0;
+        for (int slot = priced.nextSetBit(0); slot >= 0; slot = priced.nextSetBit(slot + 1)) {
+            sorted[i++] = priceOf(slot);
+        }
+        Arrays.sort(sorted);
+
+        int[] slots = new int[n];
+        int[] placed = new int[n];
+        for (int slot = priced.nextSetBit(0); slot >= 0; slot = priced.nextSetBit(slot + 1)) {
+            int first = lowerBound(sorted, priceOf(slot));
+            slots[first + placed[first]++] = slot;
+        }
+        sortedPrices = sorted;
+        slotsByPrice = slots;
+        priceDirty = false;
+    }
+
+    private double priceOf(int slot) {
+        return rooms.get(slot).getPrice();
+    }
+
+    // -------------------- SEARCH --------------------
+    public List<RoomResponseDTO> search(String location, String roomType, Double minPrice, Double maxPrice,
+                                        boolean onlyAvailable, int limit) {
+        return search(location, roomType, minPrice, maxPrice, onlyAvailable, limit, roomId -> true);
+    }
+
+    // Same as above, with an extra per-room check applied to the intersected candidates
+    public List<RoomResponseDTO> search(String location, String roomType, Double minPrice, Double maxPrice,
+                                        boolean onlyAvailable, int limit, Predicate<String> roomFilter) {
+        boolean byPrice = minPrice != null || maxPrice != null;
+        lock.readLock().lock();
+        // A write may land between any unlocked check and the read lock, so check again while holding it
+        while (byPrice && priceDirty) {
+            lock.readLock().unlock();
+            // Rebuild the price column, then downgrade so no write can slip in before we read it
+            lock.writeLock().lock();
+            try {
+                if (priceDirty) rebuildPrices();
+                lock.readLock().lock();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        try {
+            BitSet result = (BitSet) (onlyAvailable ? available : live).clone();
+
+            if (location != null && !location.isBlank()) {
+                result.and(byLocation.getOrDefault(normalise(location), new BitSet()));
+            }
+            if (roomType != null && !roomType.isBlank()) {
+                result.and(byRoomType.getOrDefault(normalise(roomType), new BitSet()));
+            }
+            if (byPrice && !result.isEmpty()) {
+                result.and(priceRange(minPrice, maxPrice));
+            }
+
+            List<RoomResponseDTO> matches = new ArrayList<>(Math.min(limit, result.cardinality()));
+            for (int slot = result.nextSetBit(0); slot >= 0 && matches.size() < limit; slot = result.nextSetBit(slot + 1)) {
+                RoomResponseDTO room = rooms.get(slot);
+                if (roomFilter.test(room.getId())) matches.add(room);
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet priceRange(Double minPrice, Double maxPrice) {
+        int from = minPrice == null ? 0 : lowerBound(sortedPrices, minPrice);
+        int to = maxPrice == null ? sortedPrices.length : upperBound(sortedPrices, maxPrice);
+        BitSet bits = new BitSet(rooms.size());
+        for (int i = from; i < to; i++) {
+            bits.set(slotsByPrice[i]);
+        }
+        return bits;
+    }
+
+    // first index with value >= key
+    private static int lowerBound(double[] a, double key) {
+        int lo = 0, hi = a.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < key) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    // first index with value > key
+    private static int upperBound(double[] a, double key) {
+        int lo = 0, hi = a.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] <= key) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    static String normalise(String value) {
+        if (value == null) return "";
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,187 @@
+package HotelApp.com.example.HotelApp.service;
+
+import HotelApp.com.example.HotelApp.dto.CursorPageDTO;
+import HotelApp.com.example.HotelApp.dto.SellerBookingArchiveDTO;
+import HotelApp.com.example.HotelApp.dto.SellerBookingDTO;
+import HotelApp.com.example.HotelApp.model.Booking;
+import HotelApp.com.example.HotelApp.model.BookingArchive;
+import HotelApp.com.example.HotelApp.model.Room;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Seller dashboard queries. Bookings are selected in Mongo with an indexed roomId $in over the
+ * seller's rooms instead of scanning the whole collection, with optional date-range filters
+ * and keyset pagination.
+ * Live bookings are ordered by (bookingDate, _id) ascending, history by (leavingDate, _id) descending.
+ */
+@Service
+@RequiredArgsConstructor
+public class SellerBookingService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final int EXPORT_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    // -------------------- LIVE BOOKINGS --------------------
+    public List<SellerBookingDTO> getBookings(String sellerId) {
+        Map<String, String> roomImages = sellerRoomImages(sellerId);
+        if (roomImages.isEmpty()) return List.of();
+
+        Query query = overlapping(roomImages.keySet().stream().toList(), null, null);
+        return mongoTemplate.find(query, Booking.class).stream()
+                .map(b -> DtoMappers.toSellerDTO(b, roomImages.get(b.getRoomId())))
+                .toList();
+    }
+
+    public CursorPageDTO<SellerBookingDTO> getBookingsPage(String sellerId, LocalDate from, LocalDate to,
+                                                           Integer limitParam, String cursor) {
+        Map<String, String> roomImages = sellerRoomImages(sellerId);
+        if (roomImages.isEmpty()) return new CursorPageDTO<>(List.of(), null, false);
+
+        int limit = pageSize(limitParam);
+        Query query = overlapping(roomImages.keySet().stream().toList(), from, to);
+        if (cursor != null && !cursor.isBlank()) {
+            CursorKey key = decodeCursor(cursor);
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where("bookingDate").gt(key.date()),
+                    Criteria.where("bookingDate").is(key.date()).and("_id").gt(key.id())));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "bookingDate", "_id")).limit(limit + 1);
+
+        List<Booking> rows = mongoTemplate.find(query, Booking.class);
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) rows = rows.subList(0, limit);
+
+        Booking last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+        return new CursorPageDTO<>(
+                rows.stream().map(b -> DtoMappers.toSellerDTO(b, roomImages.get(b.getRoomId()))).toList(),
+                hasMore ? encodeCursor(last.getBookingDate(), last.getId()) : null,
+                hasMore);
+    }
+
+    // -------------------- HISTORY --------------------
+    public List<SellerBookingArchiveDTO> getHistory(String sellerId) {
+        List<String> roomIds = sellerRoomImages(sellerId).keySet().stream().toList();
+        if (roomIds.isEmpty()) return List.of();
+
+        Query query = overlapping(roomIds, null, null);
+        return mongoTemplate.find(query, BookingArchive.class).stream()
+                .map(this::toArchiveDTO)
+                .toList();
+    }
+
+    // Export variant: mapped straight off a Mongo cursor; the caller must close the stream
+    public Stream<SellerBookingArchiveDTO> streamHistory(String sellerId) {
+        List<String> roomIds = sellerRoomImages(sellerId).keySet().stream().toList();
+        if (roomIds.isEmpty()) return Stream.empty();
+
+        Query query = overlapping(roomIds, null, null).cursorBatchSize(EXPORT_BATCH_SIZE);
+        return mongoTemplate.stream(query, BookingArchive.class).map(this::toArchiveDTO);
+    }
+
+    public CursorPageDTO<SellerBookingArchiveDTO> getHistoryPage(String sellerId, LocalDate from, LocalDate to,
+                                                                 Integer limitParam, String cursor) {
+        List<String> roomIds = sellerRoomImages(sellerId).keySet().stream().toList();
+        if (roomIds.isEmpty()) return new CursorPageDTO<>(List.of(), null, false);
+
+        int limit = pageSize(limitParam);
+        Query query = overlapping(roomIds, from, to);
+        if (cursor != null && !cursor.isBlank()) {
+            CursorKey key = decodeCursor(cursor);
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where("leavingDate").lt(key.date()),
+                    Criteria.where("leavingDate").is(key.date()).and("_id").lt(key.id())));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "leavingDate", "_id")).limit(limit + 1);
+
+        List<BookingArchive> rows = mongoTemplate.find(query, BookingArchive.class);
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) rows = rows.subList(0, limit);
+
+        BookingArchive last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+        return new CursorPageDTO<>(
+                rows.stream().map(this::toArchiveDTO).toList(),
+                hasMore ? encodeCursor(last.getLeavingDate(), last.getId()) : null,
+                hasMore);
+    }
+
+    // -------------------- QUERY HELPERS --------------------
+    // roomId → first image for every room the seller owns
+    private Map<String, String> sellerRoomImages(String sellerId) {
+        Query query = new Query(Criteria.where("sellerId").is(sellerId));
+        query.fields().include("_id").slice("images", 1);
+
+        Map<String, String> roomImages = new HashMap<>();
+        for (Room room : mongoTemplate.find(query, Room.class)) {
+            roomImages.put(room.getId(), RoomBatchLoader.firstImage(room));
+        }
+        return roomImages;
+    }
+
+    // roomId $in, plus "stay overlaps [from, to]" when either bound is given
+    private Query overlapping(List<String> roomIds, LocalDate from, LocalDate to) {
+        Query query = new Query(Criteria.where("roomId").in(roomIds));
+        if (to != null) query.addCriteria(Criteria.where("bookingDate").lte(to));
+        if (from != null) query.addCriteria(Criteria.where("leavingDate").gte(from));
+        return query;
+    }
+
+    private static int pageSize(Integer limitParam) {
+        return limitParam == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limitParam, MAX_PAGE_SIZE));
+    }
+
+    private record CursorKey(LocalDate date, String id) {}
+
+    private static String encodeCursor(LocalDate date, String id) {
+        String raw = date + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static CursorKey decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 2 || parts[1].isEmpty()) throw new IllegalArgumentException("bad cursor");
+            return new CursorKey(LocalDate.parse(parts[0]), parts[1]);
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    // -------------------- MAPPING --------------------
+    private SellerBookingArchiveDTO toArchiveDTO(BookingArchive ba) {
+        return new SellerBookingArchiveDTO(
+                ba.getId(),
+                ba.getUserId(),
+                ba.getRoomId(),
+                ba.getName(),
+                ba.getAge(),
+                ba.getGender(),
+                ba.getBookingDate().format(DtoMappers.DATE),
+                ba.getLeavingDate().format(DtoMappers.DATE),
+                ba.getHotelName(),
+                ba.getRoomType(),
+                ba.getLocation(),
+                ba.getPrice(),
+                ba.getStatus(),
+                ba.getImageUrl() // room image
+        );
+    }
+}
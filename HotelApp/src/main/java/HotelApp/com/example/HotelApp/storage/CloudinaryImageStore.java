@@ -0,0 +1,40 @@
+package HotelApp.com.example.HotelApp.storage;
+
+import HotelApp.com.example.HotelApp.config.CloudinaryConfig;
+import com.cloudinary.Cloudinary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Key is "resourceType/publicId", both needed to destroy the asset again
+@Component
+@ConditionalOnProperty(name = "images.store", havingValue = "cloudinary", matchIfMissing = true)
+@RequiredArgsConstructor
+public class CloudinaryImageStore implements ImageStore {
+
+    private final CloudinaryConfig cloudinaryConfig;
+    private final Cloudinary cloudinary;
+
+    @Override
+    public StoredImage store(MultipartFile file) throws IOException {
+        Map<?, ?> result = cloudinaryConfig.upload(cloudinary, file);
+        return new StoredImage(result.get("secure_url").toString(),
+                result.get("resource_type") + "/" + result.get("public_id"));
+    }
+
+    @Override
+    public void delete(StoredImage image) throws IOException {
+        int slash = image.key().indexOf('/');
+        cloudinaryConfig.delete(cloudinary, image.key().substring(slash + 1), image.key().substring(0, slash));
+    }
+
+    @Override
+    public Resource load(String key) {
+        return null; // served by Cloudinary's CDN
+    }
+}
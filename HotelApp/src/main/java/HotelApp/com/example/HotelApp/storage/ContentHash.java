@@ -0,0 +1,59 @@
+package HotelApp.com.example.HotelApp.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/** SHA-256 helpers for the content-addressed stores. Keys are "<64 hex chars>[.ext]". */
+public final class ContentHash {
+
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}(\\.[a-z0-9]{1,5})?");
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,5}");
+
+    private ContentHash() {
+    }
+
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static String sha256Hex(byte[] bytes) {
+        return HexFormat.of().formatHex(sha256().digest(bytes));
+    }
+
+    // Copies in to target in fixed-size chunks and returns the hex digest of what was copied
+    public static String copyAndHash(InputStream in, Path target) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream digesting = new DigestInputStream(in, digest);
+             OutputStream out = Files.newOutputStream(target)) {
+            digesting.transferTo(out);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // ".jpg" from "Beach View.JPG"; empty when missing or not a plain short extension
+    public static String extension(String filename) {
+        if (filename == null) return "";
+        int dot = filename.lastIndexOf('.');
+        if (dot < 0) return "";
+        String ext = filename.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(ext).matches() ? "." + ext : "";
+    }
+
+    // Keys come from URLs, so anything else (e.g. "../") is rejected before touching the filesystem
+    public static boolean isValidKey(String key) {
+        return key != null && KEY.matcher(key).matches();
+    }
+}
@@ -0,0 +1,31 @@
+package HotelApp.com.example.HotelApp.storage;
+
+import org.springframework.core.io.Resource;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+/**
+ * Where uploaded images live. Selected with images.store:
+ * cloudinary (default), local (content-addressed files under images.local.dir) or memory (tests, load runs).
+ */
+public interface ImageStore {
+
+    StoredImage store(MultipartFile file) throws IOException;
+
+    void delete(StoredImage image) throws IOException;
+
+    /**
+     * The stored bytes for a key, for backends that serve images themselves through /api/images/{key};
+     * null when the key is unknown or the backend serves its own URLs (Cloudinary).
+     */
+    Resource load(String key);
+
+    /**
+     * True when storing the same bytes twice yields the same key, so one stored copy may back several callers and
+     * must not be deleted just because a store() call turned out to be redundant.
+     */
+    default boolean contentAddressed() {
+        return false;
+    }
+}
@@ -0,0 +1,54 @@
+package HotelApp.com.example.HotelApp.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps images in a map, keyed by content hash like LocalDiskImageStore. Holds whole files on the heap,
+ * so it is meant for tests and offline load runs, not production.
+ */
+@Component
+@ConditionalOnProperty(name = "images.store", havingValue = "memory")
+public class InMemoryImageStore implements ImageStore {
+
+    private final Map<String, byte[]> images = new ConcurrentHashMap<>();
+
+    @Value("${images.local.base-url:/api/images}")
+    private String baseUrl;
+
+    @Override
+    public StoredImage store(MultipartFile file) throws IOException {
+        byte[] bytes = file.getBytes();
+        String key = ContentHash.sha256Hex(bytes) + ContentHash.extension(file.getOriginalFilename());
+        images.putIfAbsent(key, bytes);
+        return new StoredImage(baseUrl + "/" + key, key);
+    }
+
+    @Override
+    public void delete(StoredImage image) {
+        images.remove(image.key());
+    }
+
+    @Override
+    public Resource load(String key) {
+        byte[] bytes = images.get(key);
+        return bytes == null ? null : new ByteArrayResource(bytes);
+    }
+
+    public int size() {
+        return images.size();
+    }
+
+    @Override
+    public boolean contentAddressed() {
+        return true;
+    }
+}
@@ -0,0 +1,81 @@
+package HotelApp.com.example.HotelApp.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Content-addressed files under images.local.dir: each image is stored once as
+ * <dir>/<first two hex chars>/<sha256>.<ext>, so identical uploads share a file.
+ * The hash is computed while the upload is streamed to a temp file, which is then moved into place.
+ * Images are served by AuthController (/api/images/{key}) with sendfile or FileChannel.transferTo.
+ */
+@Component
+@ConditionalOnProperty(name = "images.store", havingValue = "local")
+public class LocalDiskImageStore implements ImageStore {
+
+    private final Path root;
+    private final String baseUrl;
+
+    public LocalDiskImageStore(@Value("${images.local.dir:./data/images}") String dir,
+                               @Value("${images.local.base-url:/api/images}") String baseUrl) throws IOException {
+        this.root = Files.createDirectories(Path.of(dir).toAbsolutePath().normalize());
+        this.baseUrl = baseUrl;
+        Files.createDirectories(root.resolve("tmp"));
+    }
+
+    @Override
+    public StoredImage store(MultipartFile file) throws IOException {
+        Path temp = Files.createTempFile(root.resolve("tmp"), "upload-", ".part");
+        try {
+            String hash;
+            try (InputStream in = file.getInputStream()) {
+                hash = ContentHash.copyAndHash(in, temp);
+            }
+            String key = hash + ContentHash.extension(file.getOriginalFilename());
+            Path target = path(key);
+            Files.createDirectories(target.getParent());
+            if (!Files.exists(target)) {
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // same content stored concurrently; theirs is identical
+                }
+            }
+            return new StoredImage(baseUrl + "/" + key, key);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void delete(StoredImage image) throws IOException {
+        if (ContentHash.isValidKey(image.key())) Files.deleteIfExists(path(image.key()));
+    }
+
+    @Override
+    public Resource load(String key) {
+        if (!ContentHash.isValidKey(key)) return null;
+        Path path = path(key);
+        return Files.isRegularFile(path) ? new FileSystemResource(path) : null;
+    }
+
+    private Path path(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    @Override
+    public boolean contentAddressed() {
+        return true;
+    }
+}
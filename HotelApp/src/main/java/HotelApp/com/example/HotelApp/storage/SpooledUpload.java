@@ -0,0 +1,90 @@
+package HotelApp.com.example.HotelApp.storage;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * An uploaded part that can be stored more than once. The part is moved to a temp file under dir on first
+ * read (transferTo, so a part Tomcat already holds on disk is not copied); every read and transferTo after
+ * that is served from the temp file, which close() deletes. Nothing is spooled if the part is never read.
+ */
+public final class SpooledUpload implements MultipartFile, Closeable {
+
+    private final MultipartFile part;
+    private final Path dir;
+    private Path spooled;
+
+    public SpooledUpload(MultipartFile part, Path dir) {
+        this.part = part;
+        this.dir = dir;
+    }
+
+    private synchronized Path spooled() throws IOException {
+        if (spooled == null) {
+            Files.createDirectories(dir);
+            Path target = Files.createTempFile(dir, "upload-", ".part");
+            try {
+                Files.delete(target); // part.write() refuses to overwrite on some containers
+                part.transferTo(target.toFile());
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(target);
+                throw e;
+            }
+            spooled = target;
+        }
+        return spooled;
+    }
+
+    @Override
+    public String getName() {
+        return part.getName();
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return part.getOriginalFilename();
+    }
+
+    @Override
+    public String getContentType() {
+        return part.getContentType();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return part.getSize() == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return part.getSize();
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return Files.readAllBytes(spooled());
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(spooled());
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        Files.copy(spooled(), dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (spooled != null) Files.deleteIfExists(spooled);
+        spooled = null;
+    }
+}
@@ -0,0 +1,7 @@
+package HotelApp.com.example.HotelApp.storage;
+
+/**
+ * An image held by an ImageStore: the URL saved on rooms and profiles, and the backend's own key for it
+ * (Cloudinary resource type + public id, or the content hash for the local and in-memory stores).
+ */
+public record StoredImage(String url, String key) {}
@@ -0,0 +1,168 @@
+package HotelApp.com.example.HotelApp.config;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.Uploader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Uploads several large files at once through CloudinaryConfig.upload and checks, per uploading thread,
+ * how many bytes it allocated on the heap. Buffering a whole file (file.getBytes()) would allocate at least
+ * the file size; the streaming path must stay at a small constant regardless of it.
+ * The Cloudinary uploader is a mock that reads the spooled file in 64 KB chunks, like the HTTP client does.
+ */
+class CloudinaryConfigStreamingUploadTest {
+
+    private static final int FILE_SIZE = 32 * 1024 * 1024;
+    private static final int CONCURRENT_UPLOADS = 4;
+    private static final long MAX_ALLOCATED_PER_UPLOAD = 2 * 1024 * 1024;
+
+    private Path workDir;
+    private Path source;
+
+    @BeforeEach
+    void createLargeFile() throws IOException {
+        workDir = Files.createTempDirectory("streaming-upload-test");
+        source = workDir.resolve("large.jpg");
+        try (RandomAccessFile raf = new RandomAccessFile(source.toFile(), "rw")) {
+            raf.setLength(FILE_SIZE);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        try (Stream<Path> files = Files.walk(workDir)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    void concurrentLargeUploadsKeepHeapAllocationFlat() throws Exception {
+        Path spoolDir = Files.createDirectories(workDir.resolve("spool"));
+        CloudinaryConfig config = new CloudinaryConfig();
+        ReflectionTestUtils.setField(config, "spoolDir", spoolDir.toString());
+        Cloudinary cloudinary = streamingCloudinary();
+
+        // Warm up class loading and the mock so they are not charged to the measured uploads
+        config.upload(cloudinary, new DiskMultipartFile(source));
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        ExecutorService pool = Executors.newFixedThreadPool(CONCURRENT_UPLOADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_UPLOADS; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                long threadId = Thread.currentThread().getId();
+                long before = threads.getThreadAllocatedBytes(threadId);
+                Map<?, ?> result = config.upload(cloudinary, new DiskMultipartFile(source));
+                long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+                return new long[]{allocated, ((Number) result.get("bytes")).longValue()};
+            }));
+        }
+        start.countDown();
+
+        for (Future<long[]> future : futures) {
+            long[] measured = future.get(120, TimeUnit.SECONDS);
+            assertThat(measured[1]).as("bytes streamed to the uploader").isEqualTo(FILE_SIZE);
+            assertThat(measured[0]).as("heap bytes allocated by one upload").isLessThan(MAX_ALLOCATED_PER_UPLOAD);
+        }
+        pool.shutdown();
+
+        try (Stream<Path> left = Files.list(spoolDir)) {
+            assertThat(left).as("spool files are removed after upload").isEmpty();
+        }
+    }
+
+    // Reads the uploaded File through a fixed buffer and reports how many bytes it saw
+    private static Cloudinary streamingCloudinary() throws IOException {
+        Uploader uploader = mock(Uploader.class);
+        when(uploader.upload(any(), anyMap())).thenAnswer(invocation -> {
+            Object body = invocation.getArgument(0);
+            assertThat(body).as("upload source").isInstanceOf(File.class);
+
+            long total = 0;
+            ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+            try (FileChannel channel = FileChannel.open(((File) body).toPath(), StandardOpenOption.READ)) {
+                int n;
+                while ((n = channel.read(buffer)) != -1) {
+                    total += n;
+                    buffer.clear();
+                }
+            }
+            return Map.of("secure_url", "https://example.test/image.jpg", "public_id", "image",
+                    "resource_type", "image", "bytes", total);
+        });
+
+        Cloudinary cloudinary = mock(Cloudinary.class);
+        when(cloudinary.uploader()).thenReturn(uploader);
+        return cloudinary;
+    }
+
+    // A multipart file that lives on disk, the way the container stores parts above the size threshold
+    private static class DiskMultipartFile implements MultipartFile {
+
+        private final Path path;
+
+        DiskMultipartFile(Path path) {
+            this.path = path;
+        }
+
+        @Override public String getName() { return "images"; }
+        @Override public String getOriginalFilename() { return path.getFileName().toString(); }
+        @Override public String getContentType() { return "image/jpeg"; }
+        @Override public boolean isEmpty() { return getSize() == 0; }
+
+        @Override
+        public long getSize() {
+            return path.toFile().length();
+        }
+
+        @Override
+        public byte[] getBytes() {
+            throw new AssertionError("upload path must not buffer the whole file");
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            try (InputStream in = getInputStream()) {
+                Files.copy(in, dest.toPath());
+            }
+        }
+    }
+}
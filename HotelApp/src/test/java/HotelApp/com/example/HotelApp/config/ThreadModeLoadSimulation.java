@@ -0,0 +1,118 @@
+package HotelApp.com.example.HotelApp.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Open-loop load model of the request mix that motivated ThreadingConfig: booking traffic that blocks on a few
+ * Mongo round trips, plus room uploads that block on Cloudinary for hundreds of milliseconds.
+ * Requests arrive at a fixed rate whether or not earlier ones finished (like real clients), and latency is
+ * measured from arrival, so time spent waiting for a free request thread shows up in p99.
+ *
+ * Compares Tomcat's default 200 platform threads, a larger platform pool, and virtual threads (Java 21+ only;
+ * the recorded results are from Java 17, so the virtual row has not been measured yet).
+ * Run from HotelApp/:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) HotelApp.com.example.HotelApp.config.ThreadModeLoadSimulation
+ */
+public class ThreadModeLoadSimulation {
+
+    static final int REQUESTS_PER_SECOND = 2_000;
+    static final int DURATION_SECONDS = 10;
+    static final double UPLOAD_SHARE = 0.25;
+
+    static final long MONGO_MS = 4;          // one round trip
+    static final int MONGO_CALLS_PER_BOOKING = 3;
+    static final long UPLOAD_MS = 400;       // one Cloudinary image upload
+
+    public static void main(String[] args) throws Exception {
+        Map<String, Supplier<ExecutorService>> modes = new LinkedHashMap<>();
+        modes.put("platform-200", () -> Executors.newFixedThreadPool(200));
+        modes.put("platform-1000", () -> Executors.newFixedThreadPool(1000));
+        if (Runtime.version().feature() >= 21) {
+            modes.put("virtual", ThreadModeLoadSimulation::virtualThreadExecutor);
+        } else {
+            System.out.println("Java " + Runtime.version() + ": virtual threads unavailable, skipping that mode.");
+        }
+
+        System.out.printf("%d req/s for %d s, %.0f%% uploads%n", REQUESTS_PER_SECOND, DURATION_SECONDS, UPLOAD_SHARE * 100);
+        System.out.printf("%-14s %10s %12s %12s %12s %12s%n", "mode", "req/s", "book p50", "book p99", "upload p50", "upload p99");
+        for (Map.Entry<String, Supplier<ExecutorService>> mode : modes.entrySet()) {
+            run(mode.getKey(), mode.getValue().get());
+        }
+    }
+
+    private static void run(String name, ExecutorService executor) throws InterruptedException {
+        int total = REQUESTS_PER_SECOND * DURATION_SECONDS;
+        long[] latencies = new long[total];
+        boolean[] upload = new boolean[total];
+        AtomicLong lastCompletion = new AtomicLong();
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / REQUESTS_PER_SECOND;
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long arrival = start + i * intervalNanos;
+            long wait = arrival - System.nanoTime();
+            if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+
+            int n = i;
+            upload[n] = ThreadLocalRandom.current().nextDouble() < UPLOAD_SHARE;
+            executor.execute(() -> {
+                if (upload[n]) {
+                    block(UPLOAD_MS);
+                    block(MONGO_MS);
+                } else {
+                    for (int c = 0; c < MONGO_CALLS_PER_BOOKING; c++) block(MONGO_MS);
+                }
+                long done = System.nanoTime();
+                latencies[n] = done - arrival;
+                lastCompletion.accumulateAndGet(done, Math::max);
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.MINUTES);
+
+        List<Long> bookings = new ArrayList<>();
+        List<Long> uploads = new ArrayList<>();
+        for (int i = 0; i < total; i++) (upload[i] ? uploads : bookings).add(latencies[i]);
+
+        double seconds = (lastCompletion.get() - start) / 1e9;
+        System.out.printf("%-14s %10.0f %10.1fms %10.1fms %10.1fms %10.1fms%n", name, total / seconds,
+                percentileMs(bookings, 50), percentileMs(bookings, 99),
+                percentileMs(uploads, 50), percentileMs(uploads, 99));
+    }
+
+    private static void block(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static double percentileMs(List<Long> values, int percentile) {
+        if (values.isEmpty()) return 0;
+        long[] sorted = values.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile / 100.0 * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    // Compiled for 17, so the Java 21 factory is looked up reflectively
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package HotelApp.com.example.HotelApp.controller;
+
+import HotelApp.com.example.HotelApp.security.AuthenticatedUser;
+import HotelApp.com.example.HotelApp.service.CollectionVersions;
+import HotelApp.com.example.HotelApp.service.CollectionVersions.Stamp;
+import HotelApp.com.example.HotelApp.service.CollectionVersions.Versioned;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConditionalGetInterceptorTest {
+
+    private static final Instant BUILT_AT = Instant.parse("2030-01-01T10:15:30.250Z");
+
+    private final CollectionVersions collectionVersions = mock(CollectionVersions.class);
+    private final ConditionalGetInterceptor interceptor = interceptor(buildInfo(BUILT_AT));
+
+    @SuppressWarnings("unused")
+    static class Handlers {
+        @ConditionalGet(shared = true, maxAgeSeconds = 300)
+        void home() {}
+
+        @ConditionalGet(value = Versioned.ROOMS, encoded = true)
+        void catalog() {}
+
+        @ConditionalGet(value = Versioned.USERS, perUser = true)
+        void profile() {}
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // -------------------- STATIC CONTENT --------------------
+    @Test
+    void staticTagComesFromTheBuildNotTheInstance() throws Exception {
+        MockHttpServletResponse first = get("home", null, null);
+        MockHttpServletResponse otherInstance = get(interceptor(buildInfo(BUILT_AT)), "home", null, null);
+
+        assertThat(first.getHeader(HttpHeaders.ETAG)).isEqualTo("\"S" + Long.toString(BUILT_AT.getEpochSecond() * 1000, 36) + "\"");
+        assertThat(otherInstance.getHeader(HttpHeaders.ETAG)).isEqualTo(first.getHeader(HttpHeaders.ETAG));
+        assertThat(first.getDateHeader(HttpHeaders.LAST_MODIFIED)).isEqualTo(BUILT_AT.getEpochSecond() * 1000);
+        assertThat(first.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("max-age=300, public");
+
+        MockHttpServletResponse revalidated = get("home", null, first.getHeader(HttpHeaders.ETAG));
+        assertThat(revalidated.getStatus()).isEqualTo(304);
+
+        MockHttpServletResponse nextBuild = get(interceptor(buildInfo(BUILT_AT.plusSeconds(60))), "home", null,
+                first.getHeader(HttpHeaders.ETAG));
+        assertThat(nextBuild.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void staticContentWithoutBuildInfoHasNoValidators() throws Exception {
+        MockHttpServletResponse response = get(interceptor(null), "home", null, null);
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(response.getHeader(HttpHeaders.LAST_MODIFIED)).isNull();
+    }
+
+    // -------------------- VERSIONED COLLECTIONS --------------------
+    @Test
+    void bumpInvalidatesTheTag() throws Exception {
+        when(collectionVersions.current(Versioned.ROOMS)).thenReturn(new Stamp(7, 1_700_000_000_000L));
+        String tag = get("catalog", null, null).getHeader(HttpHeaders.ETAG);
+        assertThat(tag).isEqualTo("\"R7\"");
+        assertThat(get("catalog", null, tag).getStatus()).isEqualTo(304);
+
+        when(collectionVersions.current(Versioned.ROOMS)).thenReturn(new Stamp(8, 1_700_000_001_000L));
+        MockHttpServletResponse afterBump = get("catalog", null, tag);
+        assertThat(afterBump.getStatus()).isEqualTo(200);
+        assertThat(afterBump.getHeader(HttpHeaders.ETAG)).isEqualTo("\"R8\"");
+    }
+
+    @Test
+    void versionsNotLoadedYetMeansNoValidators() throws Exception {
+        when(collectionVersions.current(Versioned.ROOMS)).thenReturn(null);
+
+        MockHttpServletResponse response = get("catalog", null, "\"R0\"");
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isNull();
+    }
+
+    @Test
+    void perUserTagNamesTheCallerAndSkipsLastModified() throws Exception {
+        when(collectionVersions.current(Versioned.USERS)).thenReturn(new Stamp(3, 1_700_000_000_000L));
+
+        signIn("user-1");
+        MockHttpServletResponse mine = get("profile", null, null);
+        assertThat(mine.getHeader(HttpHeaders.ETAG)).isEqualTo("\"U3-user-1\"");
+        assertThat(mine.getHeader(HttpHeaders.LAST_MODIFIED)).isNull();
+        assertThat(mine.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache, private");
+
+        signIn("user-2");
+        assertThat(get("profile", null, mine.getHeader(HttpHeaders.ETAG)).getStatus()).isEqualTo(200);
+
+        SecurityContextHolder.clearContext();
+        assertThat(get("profile", null, null).getHeader(HttpHeaders.ETAG)).isNull();
+    }
+
+    // -------------------- ENCODINGS --------------------
+    @Test
+    void gzipVariantHasItsOwnTag() throws Exception {
+        when(collectionVersions.current(Versioned.ROOMS)).thenReturn(new Stamp(7, 1_700_000_000_000L));
+
+        MockHttpServletResponse identity = get("catalog", null, null);
+        MockHttpServletResponse gzip = get("catalog", "gzip, deflate, br", null);
+
+        assertThat(identity.getHeader(HttpHeaders.ETAG)).isEqualTo("\"R7\"");
+        assertThat(gzip.getHeader(HttpHeaders.ETAG)).isEqualTo("\"R7-gzip\"");
+        assertThat(gzip.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+
+        // A tag only matches the encoding it was issued for
+        assertThat(get("catalog", "gzip", "\"R7-gzip\"").getStatus()).isEqualTo(304);
+        assertThat(get("catalog", "gzip", "\"R7\"").getStatus()).isEqualTo(200);
+        assertThat(get("catalog", null, "\"R7-gzip\"").getStatus()).isEqualTo(200);
+    }
+
+    private ConditionalGetInterceptor interceptor(BuildProperties buildProperties) {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<BuildProperties> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(buildProperties);
+        return new ConditionalGetInterceptor(collectionVersions,
+                new PayloadCache(new ObjectMapper(), new SimpleMeterRegistry()), provider);
+    }
+
+    private static BuildProperties buildInfo(Instant time) {
+        Properties properties = new Properties();
+        properties.setProperty("version", "0.0.1-SNAPSHOT");
+        properties.setProperty("time", time.toString());
+        return new BuildProperties(properties);
+    }
+
+    private static void signIn(String userId) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(userId, "customer"), null, List.of()));
+    }
+
+    private MockHttpServletResponse get(String handler, String acceptEncoding, String ifNoneMatch) throws Exception {
+        return get(interceptor, handler, acceptEncoding, ifNoneMatch);
+    }
+
+    private static MockHttpServletResponse get(ConditionalGetInterceptor interceptor, String handler,
+                                               String acceptEncoding, String ifNoneMatch) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/" + handler);
+        if (acceptEncoding != null) request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        if (ifNoneMatch != null) request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, new HandlerMethod(new Handlers(), Handlers.class.getDeclaredMethod(handler)));
+        return response;
+    }
+}
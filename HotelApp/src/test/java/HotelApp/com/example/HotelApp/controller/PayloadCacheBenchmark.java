@@ -0,0 +1,132 @@
+package HotelApp.com.example.HotelApp.controller;
+
+import HotelApp.com.example.HotelApp.dto.ApiResponseDTO;
+import HotelApp.com.example.HotelApp.dto.HomeDTO;
+import HotelApp.com.example.HotelApp.dto.RoomResponseDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of /home and /all-rooms bodies: building the DTOs and running Jackson on every call
+ * (as before), versus PayloadCache handing out the stored identity or gzip bytes.
+ * Each benchmark ends by writing the body to a null stream, as the response would.
+ * Look at gc.alloc.rate.norm (bytes allocated per operation) in the GC profiler output.
+ * Run from HotelApp/ (JMH forks a JVM, so it needs a real classpath):
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) HotelApp.com.example.HotelApp.controller.PayloadCacheBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class PayloadCacheBenchmark {
+
+    private static final int CATALOG_SIZE = 200;
+    private static final String BROWSER_ACCEPT_ENCODING = "gzip, deflate, br, zstd";
+
+    private final OutputStream socket = OutputStream.nullOutputStream();
+    private ObjectMapper objectMapper;
+    private PayloadCache payloadCache;
+    private List<RoomResponseDTO> catalog;
+
+    @Setup
+    public void setUp() {
+        // Like Spring's message converter: the response stream stays open after writing
+        objectMapper = new ObjectMapper().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        payloadCache = new PayloadCache(objectMapper, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(payloadCache, "maxBytes", 16L * 1024 * 1024);
+
+        catalog = new ArrayList<>();
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            RoomResponseDTO room = new RoomResponseDTO();
+            room.setId("66f1c2a9e4b0a1b2c3d4" + String.format("%04d", i));
+            room.setHotelName("Hotel " + i);
+            room.setLocation(i % 2 == 0 ? "Goa" : "Manali");
+            room.setRoomType("Deluxe");
+            room.setPrice(2500.0 + i);
+            room.setAvailable(true);
+            room.setImages(List.of("https://res.cloudinary.com/demo/image/upload/rooms/" + i + ".jpg"));
+            room.setSellerId("seller-" + (i % 10));
+            catalog.add(room);
+        }
+    }
+
+    private static HomeDTO homeData() {
+        return new HomeDTO(
+                "Welcome to HotelApp — your trusted hotel booking companion!",
+                "Find the best hotels, book instantly, and travel with confidence.",
+                List.of(
+                        "Over 5000+ verified hotels across 50 cities",
+                        "Instant booking confirmation",
+                        "Secure payments and easy refunds",
+                        "24x7 customer support"
+                ),
+                List.of("Goa", "Manali", "Jaipur", "Shimla", "Bangalore")
+        );
+    }
+
+    private ResponseEntity<byte[]> cachedHome(String acceptEncoding) {
+        return payloadCache.respond(payloadCache.get("home", "static",
+                () -> new ApiResponseDTO<>(true, "Home content fetched successfully.", homeData())), acceptEncoding);
+    }
+
+    // -------------------- /home --------------------
+    @Benchmark
+    public void homeSerialisedPerRequest() throws IOException {
+        objectMapper.writeValue(socket, new ApiResponseDTO<>(true, "Home content fetched successfully.", homeData()));
+    }
+
+    @Benchmark
+    public void homeCachedIdentity() throws IOException {
+        socket.write(cachedHome(null).getBody());
+    }
+
+    @Benchmark
+    public void homeCachedGzip() throws IOException {
+        socket.write(cachedHome(BROWSER_ACCEPT_ENCODING).getBody());
+    }
+
+    // -------------------- /all-rooms --------------------
+    @Benchmark
+    public void catalogSerialisedPerRequest() throws IOException {
+        objectMapper.writeValue(socket, new ApiResponseDTO<>(true, "All rooms fetched successfully", catalog));
+    }
+
+    @Benchmark
+    public void catalogCachedGzip() throws IOException {
+        PayloadCache.Payload snapshot = payloadCache.get("all-rooms", 42L,
+                () -> new ApiResponseDTO<>(true, "All rooms fetched successfully", catalog));
+        socket.write(payloadCache.respond(snapshot, BROWSER_ACCEPT_ENCODING).getBody());
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(PayloadCacheBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,100 @@
+package HotelApp.com.example.HotelApp.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PayloadCacheTest {
+
+    private final PayloadCache payloadCache = payloadCache(16L * 1024 * 1024);
+
+    private static PayloadCache payloadCache(long maxBytes) {
+        PayloadCache cache = new PayloadCache(new ObjectMapper(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "maxBytes", maxBytes);
+        return cache;
+    }
+
+    // -------------------- ACCEPT-ENCODING --------------------
+    @Test
+    void gzipIsAcceptedWhenListedWithoutQZero() {
+        assertThat(PayloadCache.parseAcceptsGzip("gzip")).isTrue();
+        assertThat(PayloadCache.parseAcceptsGzip("gzip, deflate, br, zstd")).isTrue();
+        assertThat(PayloadCache.parseAcceptsGzip("br;q=1.0, gzip;q=0.8")).isTrue();
+        assertThat(PayloadCache.parseAcceptsGzip("GZip")).isTrue();
+        assertThat(PayloadCache.parseAcceptsGzip(" deflate , GZIP ; q=0.5")).isTrue();
+    }
+
+    @Test
+    void gzipIsRefusedWithQZeroOrWhenNotListed() {
+        assertThat(PayloadCache.parseAcceptsGzip("gzip;q=0")).isFalse();
+        assertThat(PayloadCache.parseAcceptsGzip("gzip; q=0.000")).isFalse();
+        assertThat(PayloadCache.parseAcceptsGzip("identity")).isFalse();
+        assertThat(PayloadCache.parseAcceptsGzip("br, deflate")).isFalse();
+    }
+
+    @Test
+    void wildcardAppliesOnlyWhenGzipIsNotNamed() {
+        assertThat(PayloadCache.parseAcceptsGzip("*")).isTrue();
+        assertThat(PayloadCache.parseAcceptsGzip("br, *;q=0.1")).isTrue();
+        assertThat(PayloadCache.parseAcceptsGzip("*;q=0")).isFalse();
+        assertThat(PayloadCache.parseAcceptsGzip("gzip;q=0, *")).isFalse();
+        assertThat(PayloadCache.parseAcceptsGzip("gzip, *;q=0")).isTrue();
+    }
+
+    // -------------------- VERSIONS --------------------
+    @Test
+    void bodyIsBuiltOncePerVersion() {
+        AtomicInteger builds = new AtomicInteger();
+
+        PayloadCache.Payload v1 = payloadCache.get("all-rooms", 1L, () -> Map.of("build", builds.incrementAndGet()));
+        assertThat(payloadCache.get("all-rooms", 1L, () -> Map.of("build", builds.incrementAndGet()))).isSameAs(v1);
+        assertThat(builds).hasValue(1);
+
+        PayloadCache.Payload v2 = payloadCache.get("all-rooms", 2L, () -> Map.of("build", builds.incrementAndGet()));
+        assertThat(v2).isNotSameAs(v1);
+        assertThat(new String(v2.identity().getBody())).isEqualTo("{\"build\":2}");
+        assertThat(payloadCache.get("all-rooms", 2L, () -> Map.of("build", builds.incrementAndGet()))).isSameAs(v2);
+        assertThat(builds).hasValue(2);
+    }
+
+    @Test
+    void unknownVersionAndOversizedBodiesAreNotKept() {
+        AtomicInteger builds = new AtomicInteger();
+        payloadCache.get("all-rooms", null, () -> Map.of("build", builds.incrementAndGet()));
+        payloadCache.get("all-rooms", null, () -> Map.of("build", builds.incrementAndGet()));
+        assertThat(builds).hasValue(2);
+
+        PayloadCache small = payloadCache(8);
+        small.get("home", "static", () -> Map.of("build", builds.incrementAndGet()));
+        small.get("home", "static", () -> Map.of("build", builds.incrementAndGet()));
+        assertThat(builds).hasValue(4);
+    }
+
+    // -------------------- RESPONSE --------------------
+    @Test
+    void gzipVariantDecompressesToTheIdentityBody() throws Exception {
+        PayloadCache.Payload payload = payloadCache.get("home", "static", () -> Map.of("message", "Welcome to HotelApp"));
+
+        ResponseEntity<byte[]> identity = payloadCache.respond(payload, null);
+        ResponseEntity<byte[]> gzip = payloadCache.respond(payload, "gzip, deflate");
+
+        assertThat(identity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzip.getHeaders().getFirst(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(gzip.getHeaders().getContentLength()).isEqualTo(gzip.getBody().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.getBody()))) {
+            assertThat(in.readAllBytes()).isEqualTo(identity.getBody());
+        }
+        assertThat(payloadCache.respond(payload, "gzip;q=0")).isSameAs(identity);
+    }
+}
@@ -0,0 +1,124 @@
+package HotelApp.com.example.HotelApp.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private static final String LOGIN = "/api/auth/login";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitFilter filter = new RateLimitFilter(new TokenBucketRateLimiter(meterRegistry),
+            List.of(new RateLimitFilter.RoutePolicy(LOGIN,
+                    new TokenBucketRateLimiter.Policy("login-ip", 100, 100),
+                    new TokenBucketRateLimiter.Policy("login-email", 1, 1))),
+            false, meterRegistry);
+
+    // -------------------- BODY SIZE --------------------
+    @Test
+    void chunkedBodyStillCountsAgainstTheEmailBucket() throws Exception {
+        String body = "{\"email\":\"asha@example.com\",\"password\":\"secret123\"}";
+
+        MockFilterChain first = new MockFilterChain();
+        assertThat(login(chunked(body), first).getStatus()).isEqualTo(200);
+        assertThat(new String(((HttpServletRequest) first.getRequest()).getInputStream().readAllBytes(),
+                StandardCharsets.UTF_8)).isEqualTo(body);
+
+        MockHttpServletResponse second = login(chunked(body), new MockFilterChain());
+        assertThat(second.getStatus()).isEqualTo(429);
+        assertThat(second.getHeader("Retry-After")).isNotNull();
+    }
+
+    @Test
+    void oversizedBodiesAreRefusedWhetherDeclaredOrChunked() throws Exception {
+        String body = "{\"email\":\"" + "a".repeat(RateLimitFilter.MAX_BODY_BYTES) + "@example.com\"}";
+
+        MockHttpServletRequest declared = post();
+        declared.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockFilterChain chain = new MockFilterChain();
+        assertThat(login(declared, chain).getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+
+        chain = new MockFilterChain();
+        assertThat(login(chunked(body), chain).getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    // -------------------- REPLAY --------------------
+    @Test
+    void replayedBodySupportsNonBlockingReads() throws Exception {
+        String body = "{\"email\":\"ravi@example.com\"}";
+        MockFilterChain chain = new MockFilterChain();
+        login(chunked(body), chain);
+
+        ServletInputStream in = ((HttpServletRequest) chain.getRequest()).getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        boolean[] allRead = new boolean[1];
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                byte[] buffer = new byte[8];
+                while (in.isReady() && !in.isFinished()) {
+                    int n = in.read(buffer);
+                    if (n > 0) read.write(buffer, 0, n);
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allRead[0] = true;
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throw new AssertionError(t);
+            }
+        });
+
+        assertThat(allRead[0]).isTrue();
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo(body);
+    }
+
+    private MockHttpServletResponse login(HttpServletRequest request, MockFilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest post() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", LOGIN);
+        request.setContentType("application/json");
+        return request;
+    }
+
+    // Transfer-Encoding: chunked, so the container reports no Content-Length
+    private static MockHttpServletRequest chunked(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", LOGIN) {
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,238 @@
+package HotelApp.com.example.HotelApp.security;
+
+import HotelApp.com.example.HotelApp.config.ConditionalGetConfig;
+import HotelApp.com.example.HotelApp.config.StreamingConfig;
+import HotelApp.com.example.HotelApp.controller.AuthController;
+import HotelApp.com.example.HotelApp.controller.ConditionalGetInterceptor;
+import HotelApp.com.example.HotelApp.controller.JsonEnvelopeStreamer;
+import HotelApp.com.example.HotelApp.controller.PayloadCache;
+import HotelApp.com.example.HotelApp.dto.RoomResponseDTO;
+import HotelApp.com.example.HotelApp.dto.SellerBookingArchiveDTO;
+import HotelApp.com.example.HotelApp.service.AuthService;
+import HotelApp.com.example.HotelApp.service.CollectionVersions;
+import HotelApp.com.example.HotelApp.service.ImageAssetService;
+import HotelApp.com.example.HotelApp.service.ImageIngestionService;
+import HotelApp.com.example.HotelApp.service.ReactiveListingService;
+import HotelApp.com.example.HotelApp.service.RoomAvailabilityIndex;
+import HotelApp.com.example.HotelApp.service.RoomCalendarService;
+import HotelApp.com.example.HotelApp.service.RoomCatalogService;
+import HotelApp.com.example.HotelApp.service.RoomSearchIndex;
+import HotelApp.com.example.HotelApp.service.SellerBookingService;
+import HotelApp.com.example.HotelApp.storage.ImageStore;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs AuthController behind the real security chain on a real Tomcat, because the dispatches that matter here
+ * (ERROR for Boot's /error page, ASYNC for Flux and StreamingResponseBody results) only happen in a servlet
+ * container; MockMvc resolves both in-line. Services are mocks and Mongo is left out.
+ */
+@SpringBootTest(
+        classes = SecurityDispatchTest.WebApp.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "jwt.secret=0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef",
+                "jwt.expirationMs=3600000"
+        })
+class SecurityDispatchTest {
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = {
+            MongoAutoConfiguration.class, MongoDataAutoConfiguration.class, MongoRepositoriesAutoConfiguration.class,
+            MongoReactiveAutoConfiguration.class, MongoReactiveDataAutoConfiguration.class,
+            MongoReactiveRepositoriesAutoConfiguration.class})
+    @Import({AuthController.class, SecurityConfig.class, JwtUtils.class, TokenBucketRateLimiter.class,
+            JsonEnvelopeStreamer.class, PayloadCache.class, ConditionalGetInterceptor.class,
+            ConditionalGetConfig.class, StreamingConfig.class})
+    static class WebApp {}
+
+    @MockitoBean AuthService authService;
+    @MockitoBean RoomCatalogService roomCatalogService;
+    @MockitoBean RoomSearchIndex roomSearchIndex;
+    @MockitoBean RoomAvailabilityIndex roomAvailabilityIndex;
+    @MockitoBean RoomCalendarService roomCalendarService;
+    @MockitoBean SellerBookingService sellerBookingService;
+    @MockitoBean ImageIngestionService imageIngestionService;
+    @MockitoBean ImageStore imageStore;
+    @MockitoBean ImageAssetService imageAssetService;
+    @MockitoBean ReactiveListingService reactiveListingService;
+    @MockitoBean CollectionVersions collectionVersions;
+    @MockitoBean UserRoleCache userRoleCache;
+
+    @Autowired TestRestTemplate rest;
+    @Autowired JwtUtils jwtUtils;
+
+    private HttpHeaders signedIn;
+
+    @BeforeEach
+    void signIn() {
+        when(userRoleCache.getRole(anyString())).thenReturn("customer");
+        signedIn = new HttpHeaders();
+        signedIn.add(HttpHeaders.COOKIE, JwtAuthenticationFilter.TOKEN_COOKIE + "=" + jwtUtils.generateToken("user-1"));
+    }
+
+    // -------------------- ERROR DISPATCH --------------------
+    // Errors Spring resolves with sendError() are rendered by /error; they used to come back as 401
+    @Test
+    void malformedRegisterBodyIsBadRequestNotUnauthorized() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<String> response = rest.exchange("/api/auth/register", HttpMethod.POST,
+                new HttpEntity<>("{not json", headers), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void duplicateRegistrationIsConflictNotUnauthorized() {
+        when(authService.register(any())).thenThrow(new ResponseStatusException(HttpStatus.CONFLICT, "Email already registered"));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<String> response = rest.exchange("/api/auth/register", HttpMethod.POST,
+                new HttpEntity<>("{\"name\":\"Asha\",\"email\":\"asha@example.com\",\"password\":\"secret123\"}", headers),
+                String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).contains("\"success\":false").contains("Email already registered");
+    }
+
+    @Test
+    void saturatedRegistrationKeepsStatusAndRetryAfter() {
+        HttpHeaders retryAfter = new HttpHeaders();
+        retryAfter.set(HttpHeaders.RETRY_AFTER, "2");
+        when(authService.register(any())).thenThrow(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, please try again") {
+            @Override
+            public HttpHeaders getHeaders() {
+                return retryAfter;
+            }
+        });
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<String> response = rest.exchange("/api/auth/register", HttpMethod.POST,
+                new HttpEntity<>("{\"name\":\"Ravi\",\"email\":\"ravi@example.com\",\"password\":\"secret123\"}", headers),
+                String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(response.getBody()).contains("Server is busy, please try again");
+    }
+
+    @Test
+    void badDateParameterIsBadRequestNotUnauthorized() {
+        ResponseEntity<String> response = rest.exchange(
+                "/api/rooms/available?location=Goa&checkIn=tomorrow&checkOut=2030-01-02", HttpMethod.GET,
+                new HttpEntity<>(signedIn), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void missingParameterIsBadRequestNotUnauthorized() {
+        ResponseEntity<String> response = rest.exchange("/api/rooms/available?location=Goa", HttpMethod.GET,
+                new HttpEntity<>(signedIn), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    // -------------------- ASYNC DISPATCH --------------------
+    // A Flux or StreamingResponseBody result is written on an ASYNC dispatch after the handler returns
+    @Test
+    void streamedRoomsArriveInFull() {
+        when(reactiveListingService.streamAllRooms()).thenReturn(Flux.range(0, 500).map(SecurityDispatchTest::room));
+
+        HttpHeaders headers = new HttpHeaders(signedIn);
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        ResponseEntity<String> response = rest.exchange("/api/stream/all-rooms", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<String> lines = response.getBody().lines().toList();
+        assertThat(lines).hasSize(500);
+        assertThat(lines.get(499)).contains("\"id\":\"room-499\"");
+    }
+
+    @Test
+    void exportedHistoryArrivesInFull() throws Exception {
+        when(sellerBookingService.streamHistory("user-1")).thenReturn(IntStream.range(0, 2000).mapToObj(i ->
+                new SellerBookingArchiveDTO("booking-" + i, "guest-" + i, "room-1", "Guest " + i, 30, "female",
+                        "2030-01-01", "2030-01-03", "Hotel", "Deluxe", "Goa", 2500.0, "COMPLETED", null)));
+
+        ResponseEntity<String> response = rest.exchange("/api/seller/bookings/history/export", HttpMethod.GET,
+                new HttpEntity<>(signedIn), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        JsonNode body = new ObjectMapper().readTree(response.getBody());
+        assertThat(body.get("success").asBoolean()).isTrue();
+        assertThat(body.get("data")).hasSize(2000);
+        assertThat(body.get("data").get(1999).get("id").asText()).isEqualTo("booking-1999");
+    }
+
+    // The query is opened before the first byte is written, so its failure still gets an error status
+    @Test
+    void exportWhoseQueryFailsIsServerError() {
+        when(authService.streamArchivedBookingsByUser("user-1")).thenThrow(new IllegalStateException("cursor failed"));
+
+        ResponseEntity<String> response = rest.exchange("/api/bookings/archive/export", HttpMethod.GET,
+                new HttpEntity<>(signedIn), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @Test
+    void anonymousStreamIsUnauthorized() {
+        ResponseEntity<String> response = rest.getForEntity("/api/stream/all-rooms", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    private static RoomResponseDTO room(int i) {
+        RoomResponseDTO room = new RoomResponseDTO();
+        room.setId("room-" + i);
+        room.setHotelName("Hotel " + i);
+        room.setLocation("Goa");
+        room.setPrice(2500.0 + i);
+        room.setAvailable(true);
+        return room;
+    }
+
+    @Test
+    void anonymousRequestIsStillUnauthorized() {
+        ResponseEntity<String> response = rest.getForEntity("/api/bookings", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(response.getBody()).contains("Missing or invalid token");
+    }
+}
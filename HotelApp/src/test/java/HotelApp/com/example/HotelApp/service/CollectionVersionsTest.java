@@ -0,0 +1,72 @@
+package HotelApp.com.example.HotelApp.service;
+
+import HotelApp.com.example.HotelApp.model.CollectionVersion;
+import HotelApp.com.example.HotelApp.service.CollectionVersions.Stamp;
+import HotelApp.com.example.HotelApp.service.CollectionVersions.Versioned;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A failed bump must not make up a version another instance could issue for different content: the collection
+ * goes unversioned until refresh() gets the bump through to the shared counter.
+ */
+class CollectionVersionsTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final CollectionVersions versions = new CollectionVersions(mongoTemplate);
+
+    @Test
+    void failedBumpServesNoVersionUntilRefreshRetriesIt() {
+        when(mongoTemplate.findAll(CollectionVersion.class)).thenReturn(List.of(doc(5)));
+        versions.refresh();
+        assertThat(versions.current(Versioned.ROOMS).version()).isEqualTo(5);
+
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(CollectionVersion.class)))
+                .thenThrow(new DataAccessResourceFailureException("primary stepped down"))
+                .thenReturn(doc(7));
+        versions.bump(Versioned.ROOMS);
+        assertThat(versions.current(Versioned.ROOMS)).isNull();
+        assertThat(versions.current(Versioned.USERS)).isNotNull();
+
+        // Another instance bumped to 6 meanwhile; our retry takes 7, so no number stands for two contents
+        when(mongoTemplate.findAll(CollectionVersion.class)).thenReturn(List.of(doc(7)));
+        versions.refresh();
+        Stamp stamp = versions.current(Versioned.ROOMS);
+        assertThat(stamp).isNotNull();
+        assertThat(stamp.version()).isEqualTo(7);
+    }
+
+    @Test
+    void failedRetryKeepsTheCollectionUnversioned() {
+        when(mongoTemplate.findAll(CollectionVersion.class)).thenReturn(List.of(doc(5)));
+        versions.refresh();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(CollectionVersion.class)))
+                .thenThrow(new DataAccessResourceFailureException("primary stepped down"));
+
+        versions.bump(Versioned.ROOMS);
+        versions.refresh();
+
+        assertThat(versions.current(Versioned.ROOMS)).isNull();
+    }
+
+    private static CollectionVersion doc(long version) {
+        CollectionVersion doc = new CollectionVersion();
+        doc.setId(Versioned.ROOMS.name());
+        doc.setVersion(version);
+        doc.setUpdatedAt(Instant.ofEpochSecond(1_700_000_000L + version));
+        return doc;
+    }
+}
@@ -0,0 +1,208 @@
+package HotelApp.com.example.HotelApp.service;
+
+import HotelApp.com.example.HotelApp.model.ImageAsset;
+import HotelApp.com.example.HotelApp.storage.ImageStore;
+import HotelApp.com.example.HotelApp.storage.StoredImage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The sweep tombstones an asset before deleting its file, so an upload of the same content cannot reuse or
+ * re-store that file until the delete is done and the document is gone. A retried upload reads a spooled copy of
+ * the part, and releases never fail their caller.
+ */
+class ImageAssetServiceTest {
+
+    private static final StoredImage STORED = new StoredImage("/api/images/abc.jpg", "abc.jpg");
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final ImageStore imageStore = mock(ImageStore.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ImageAssetService service = service();
+
+    private ImageAssetService service() {
+        ImageAssetService service = new ImageAssetService(mongoTemplate, imageStore, meterRegistry);
+        ReflectionTestUtils.setField(service, "tombstoneWaitMs", 1000L);
+        ReflectionTestUtils.setField(service, "spoolDir", System.getProperty("java.io.tmpdir"));
+        return service;
+    }
+
+    // -------------------- ACQUIRE --------------------
+    @Test
+    void uploadWaitsForTheSweepToDeleteTheFileBeforeStoringItAgain() throws Exception {
+        // No live asset; a tombstone is there for the first two checks, then the sweep removes it
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ImageAsset.class)))
+                .thenAnswer(call -> ((FindAndModifyOptions) call.getArgument(2)).isUpsert() ? asset(1, null) : null);
+        when(mongoTemplate.exists(any(Query.class), eq(ImageAsset.class))).thenReturn(true, true, false);
+        when(imageStore.store(any())).thenReturn(STORED);
+
+        StoredImage image = service.acquire(file());
+
+        assertThat(image).isEqualTo(STORED);
+        InOrder order = inOrder(mongoTemplate, imageStore);
+        order.verify(mongoTemplate, times(3)).exists(any(Query.class), eq(ImageAsset.class));
+        order.verify(imageStore).store(any());
+        verify(imageStore, never()).delete(any());
+    }
+
+    @Test
+    void uploadGivesUpWhileTheTombstoneStays() throws Exception {
+        ReflectionTestUtils.setField(service, "tombstoneWaitMs", 120L);
+        when(mongoTemplate.exists(any(Query.class), eq(ImageAsset.class))).thenReturn(true);
+
+        assertThatThrownBy(() -> service.acquire(file()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode().value()).isEqualTo(503));
+        verify(imageStore, never()).store(any());
+    }
+
+    @Test
+    void liveAssetIsReusedWithoutStoring() throws Exception {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ImageAsset.class)))
+                .thenReturn(asset(2, null));
+
+        assertThat(service.acquire(file())).isEqualTo(STORED);
+        verify(imageStore, never()).store(any());
+        verify(mongoTemplate, never()).exists(any(Query.class), eq(ImageAsset.class));
+    }
+
+    @Test
+    void uploadLosingToATombstoneIsDeletedAndRetriedFromTheSpooledCopy() throws Exception {
+        AtomicInteger upserts = new AtomicInteger();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ImageAsset.class)))
+                .thenAnswer(call -> {
+                    if (!((FindAndModifyOptions) call.getArgument(2)).isUpsert()) return null;
+                    // First insert collides with a document the sweep has just tombstoned
+                    if (upserts.incrementAndGet() == 1) throw new DuplicateKeyException("E11000");
+                    return asset(1, null);
+                });
+        List<String> uploads = new ArrayList<>();
+        when(imageStore.store(any())).thenAnswer(call -> {
+            // Like CloudinaryImageStore: spools the part with transferTo, which moves a part Tomcat holds on disk
+            File target = Files.createTempFile("store-", ".part").toFile();
+            ((MultipartFile) call.getArgument(0)).transferTo(target);
+            uploads.add(Files.readString(target.toPath()));
+            Files.delete(target.toPath());
+            return STORED;
+        });
+
+        assertThat(service.acquire(movablePart("photo bytes"))).isEqualTo(STORED);
+
+        assertThat(uploads).containsExactly("photo bytes", "photo bytes");
+        verify(imageStore).delete(STORED);
+    }
+
+    @Test
+    void contentAddressedUploadLosingToATombstoneIsNotDeleted() throws Exception {
+        when(imageStore.contentAddressed()).thenReturn(true);
+        AtomicInteger upserts = new AtomicInteger();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ImageAsset.class)))
+                .thenAnswer(call -> {
+                    if (!((FindAndModifyOptions) call.getArgument(2)).isUpsert()) return null;
+                    if (upserts.incrementAndGet() == 1) throw new DuplicateKeyException("E11000");
+                    return asset(1, null);
+                });
+        when(imageStore.store(any())).thenReturn(STORED);
+
+        assertThat(service.acquire(file())).isEqualTo(STORED);
+        verify(imageStore, times(2)).store(any());
+        verify(imageStore, never()).delete(any());
+    }
+
+    // -------------------- RELEASE --------------------
+    @Test
+    void failedReleaseDoesNotFailTheCaller() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(ImageAsset.class)))
+                .thenThrow(new DataAccessResourceFailureException("primary stepped down"));
+
+        assertThatCode(() -> service.releaseAll(List.of(STORED.url(), "/api/images/other.jpg"))).doesNotThrowAnyException();
+        verify(mongoTemplate, times(2)).updateFirst(any(Query.class), any(Update.class), eq(ImageAsset.class));
+    }
+
+    // -------------------- GARBAGE COLLECTION --------------------
+    @Test
+    void sweepRemovesTheDocumentOnlyAfterTheFileIsDeleted() throws Exception {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ImageAsset.class)))
+                .thenReturn(asset(0, Instant.now()), (ImageAsset) null);
+
+        service.collectGarbage();
+
+        InOrder order = inOrder(imageStore, mongoTemplate);
+        order.verify(imageStore).delete(STORED);
+        order.verify(mongoTemplate).remove(any(Query.class), eq(ImageAsset.class));
+        assertThat(meterRegistry.counter("images.gc.collected").count()).isEqualTo(1);
+    }
+
+    @Test
+    void failedDeleteLeavesTheTombstoneForTheNextSweep() throws Exception {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(ImageAsset.class)))
+                .thenReturn(asset(0, Instant.now()), (ImageAsset) null);
+        doThrow(new IOException("disk gone")).when(imageStore).delete(any());
+
+        service.collectGarbage();
+
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(ImageAsset.class));
+        assertThat(meterRegistry.counter("images.gc.collected").count()).isZero();
+    }
+
+    private static ImageAsset asset(long refCount, Instant deletingAt) {
+        return new ImageAsset("hash", STORED.url(), STORED.key(), refCount, Instant.now(), deletingAt);
+    }
+
+    // A part that, like Tomcat's on-disk parts, is gone once transferTo has moved it
+    private static MockMultipartFile movablePart(String content) {
+        return new MockMultipartFile("image", "photo.jpg", "image/jpeg", content.getBytes()) {
+            private boolean moved;
+
+            @Override
+            public InputStream getInputStream() throws IOException {
+                if (moved) throw new IOException("part already moved");
+                return super.getInputStream();
+            }
+
+            @Override
+            public void transferTo(File dest) throws IOException {
+                if (moved) throw new IOException("part already moved");
+                super.transferTo(dest);
+                moved = true;
+            }
+        };
+    }
+
+    private static MockMultipartFile file() {
+        return new MockMultipartFile("image", "photo.jpg", "image/jpeg", new byte[]{1, 2, 3});
+    }
+}
@@ -0,0 +1,69 @@
+package HotelApp.com.example.HotelApp.service;
+
+import HotelApp.com.example.HotelApp.config.ThreadingConfig;
+import HotelApp.com.example.HotelApp.storage.StoredImage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A failed batch cancels the other uploads, but cancel does not stop a blocking store call: an upload that still
+ * completes afterwards must give its reference back.
+ */
+class ImageIngestionServiceTest {
+
+    private final ImageAssetService imageAssetService = mock(ImageAssetService.class);
+    private final ImageIngestionService service = new ImageIngestionService(imageAssetService,
+            new ThreadingConfig(new MockEnvironment()), new SimpleMeterRegistry(), 4, 16);
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void uploadFinishingAfterTheBatchFailedReleasesItsReference() throws Exception {
+        ReflectionTestUtils.setField(service, "timeoutMs", 5000L);
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch finishSlow = new CountDownLatch(1);
+        MockMultipartFile slow = new MockMultipartFile("images", "slow.jpg", "image/jpeg", new byte[]{1});
+        MockMultipartFile broken = new MockMultipartFile("images", "broken.jpg", "image/jpeg", new byte[]{2});
+
+        when(imageAssetService.acquire(any())).thenAnswer(call -> {
+            if (call.getArgument(0) == broken) {
+                slowStarted.await(5, TimeUnit.SECONDS);
+                throw new IOException("upload refused");
+            }
+            slowStarted.countDown();
+            // Like a blocking HTTP call: the interrupt from cancel(true) does not end it
+            while (true) {
+                try {
+                    finishSlow.await();
+                    return new StoredImage("https://cdn.example.com/slow.jpg", "image/slow");
+                } catch (InterruptedException ignored) {
+                    // keep waiting
+                }
+            }
+        });
+
+        assertThatThrownBy(() -> service.uploadAll(List.of(broken, slow))).hasMessageContaining("upload refused");
+
+        finishSlow.countDown();
+        verify(imageAssetService, timeout(5000)).release("https://cdn.example.com/slow.jpg");
+    }
+}
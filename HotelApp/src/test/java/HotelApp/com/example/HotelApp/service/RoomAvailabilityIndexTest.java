@@ -0,0 +1,81 @@
+package HotelApp.com.example.HotelApp.service;
+
+import HotelApp.com.example.HotelApp.model.Booking;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Bookings written while reload() streams the collection must survive the swap to the freshly built map,
+ * including a delete of a booking the stream had already read.
+ */
+class RoomAvailabilityIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 1);
+
+    @Test
+    void writesDuringReloadSurviveTheSwap() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        RoomAvailabilityIndex index = new RoomAvailabilityIndex(mongoTemplate);
+
+        Booking kept = booking("b1", "room-1", 0);
+        Booking deletedMidStream = booking("b2", "room-2", 0);
+        Booking bookedMidStream = booking("b3", "room-3", 0);
+        index.add(deletedMidStream);
+
+        // The cursor had read b2 before it was deleted, and b3 is created after the cursor passed it
+        when(mongoTemplate.stream(any(Query.class), eq(Booking.class))).thenReturn(Stream.of(kept, deletedMidStream)
+                .peek(b -> {
+                    if (b == kept) {
+                        index.remove(deletedMidStream);
+                        index.add(bookedMidStream);
+                    }
+                }));
+
+        index.reload();
+
+        assertThat(index.isFree("room-1", DAY, DAY.plusDays(1))).isFalse();
+        assertThat(index.isFree("room-2", DAY, DAY.plusDays(1))).isTrue();
+        assertThat(index.isFree("room-3", DAY, DAY.plusDays(1))).isFalse();
+
+        // Writes after the reload go to the swapped-in map only
+        index.remove(kept);
+        assertThat(index.isFree("room-1", DAY, DAY.plusDays(1))).isTrue();
+    }
+
+    @Test
+    void failedReloadKeepsTheCurrentIndex() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        RoomAvailabilityIndex index = new RoomAvailabilityIndex(mongoTemplate);
+        index.add(booking("b1", "room-1", 0));
+        when(mongoTemplate.stream(any(Query.class), eq(Booking.class))).thenThrow(new IllegalStateException("no Mongo"));
+
+        try {
+            index.reload();
+        } catch (IllegalStateException expected) {
+            // surfaced to the scheduler as before
+        }
+
+        assertThat(index.isFree("room-1", DAY, DAY.plusDays(1))).isFalse();
+        index.add(booking("b2", "room-2", 5));
+        assertThat(index.isFree("room-2", DAY.plusDays(5), DAY.plusDays(6))).isFalse();
+    }
+
+    private static Booking booking(String id, String roomId, int offsetDays) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setRoomId(roomId);
+        booking.setBookingDate(DAY.plusDays(offsetDays));
+        booking.setLeavingDate(DAY.plusDays(offsetDays + 2));
+        return booking;
+    }
+}
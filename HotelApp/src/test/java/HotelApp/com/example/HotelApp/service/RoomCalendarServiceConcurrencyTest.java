@@ -0,0 +1,132 @@
+package HotelApp.com.example.HotelApp.service;
+
+import HotelApp.com.example.HotelApp.model.RoomCalendar;
+import HotelApp.com.example.HotelApp.repository.BookingRepository;
+import HotelApp.com.example.HotelApp.repository.RoomCalendarRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Fires thousands of parallel reservations at one room. The repository is an in-memory stand-in that
+ * applies the same version check Mongo applies to a @Version entity, so this exercises the
+ * read / check / conditional-write / retry protocol end to end.
+ */
+class RoomCalendarServiceConcurrencyTest {
+
+    private static final String ROOM_ID = "room-1";
+    private static final int REQUESTS = 4000;
+    private static final int THREADS = 64;
+
+    @Test
+    void parallelReservationsNeverDoubleBook() throws Exception {
+        Map<String, RoomCalendar> store = new ConcurrentHashMap<>();
+        RoomCalendarService service = new RoomCalendarService(versionedRepository(store), emptyBookings());
+
+        LocalDate today = LocalDate.now();
+        List<LocalDate[]> won = Collections.synchronizedList(new ArrayList<>());
+        long[] latenciesNanos = new long[REQUESTS];
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            int n = i;
+            futures.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                LocalDate from = today.plusDays(random.nextInt(0, 120));
+                LocalDate to = from.plusDays(random.nextInt(0, 5));
+                start.await();
+
+                long t0 = System.nanoTime();
+                try {
+                    service.reserve(ROOM_ID, from, to);
+                    won.add(new LocalDate[]{from, to});
+                } catch (ResponseStatusException expected) {
+                    // already booked, or gave up under contention
+                }
+                latenciesNanos[n] = System.nanoTime() - t0;
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        // No two winning reservations overlap (inclusive ranges)
+        List<LocalDate[]> sorted = new ArrayList<>(won);
+        sorted.sort(Comparator.comparing(r -> r[0]));
+        for (int i = 1; i < sorted.size(); i++) {
+            assertThat(sorted.get(i)[0]).isAfter(sorted.get(i - 1)[1]);
+        }
+        assertThat(sorted).isNotEmpty();
+
+        // The stored bitmap holds exactly the winning days
+        RoomCalendar stored = store.get(ROOM_ID);
+        long bookedDays = sorted.stream().mapToLong(r -> r[1].toEpochDay() - r[0].toEpochDay() + 1).sum();
+        long bitsSet = 0;
+        for (long word : stored.getDays()) bitsSet += Long.bitCount(word);
+        assertThat(bitsSet).isEqualTo(bookedDays);
+
+        long[] sortedLatencies = latenciesNanos.clone();
+        Arrays.sort(sortedLatencies);
+        long p99Millis = TimeUnit.NANOSECONDS.toMillis(sortedLatencies[(int) (REQUESTS * 0.99) - 1]);
+        assertThat(p99Millis).isLessThan(2000);
+    }
+
+    private static RoomCalendarRepository versionedRepository(Map<String, RoomCalendar> store) {
+        RoomCalendarRepository repository = mock(RoomCalendarRepository.class);
+        when(repository.findById(anyString())).thenAnswer(inv ->
+                Optional.ofNullable(store.get(inv.<String>getArgument(0))).map(RoomCalendarServiceConcurrencyTest::copy));
+        when(repository.save(any(RoomCalendar.class))).thenAnswer(inv -> {
+            RoomCalendar incoming = inv.getArgument(0);
+            synchronized (store) {
+                RoomCalendar current = store.get(incoming.getRoomId());
+                if (incoming.getVersion() == null && current != null)
+                    throw new DuplicateKeyException("duplicate _id");
+                if (incoming.getVersion() != null && (current == null || !current.getVersion().equals(incoming.getVersion())))
+                    throw new OptimisticLockingFailureException("stale version");
+
+                RoomCalendar next = copy(incoming);
+                next.setVersion(incoming.getVersion() == null ? 0L : incoming.getVersion() + 1);
+                store.put(next.getRoomId(), next);
+                incoming.setVersion(next.getVersion());
+                return incoming;
+            }
+        });
+        return repository;
+    }
+
+    private static BookingRepository emptyBookings() {
+        BookingRepository bookings = mock(BookingRepository.class);
+        when(bookings.findByRoomId(anyString())).thenReturn(List.of());
+        return bookings;
+    }
+
+    private static RoomCalendar copy(RoomCalendar c) {
+        return new RoomCalendar(c.getRoomId(), c.getBaseDay(), c.getDays().clone(), c.getVersion());
+    }
+}
@@ -0,0 +1,80 @@
+package HotelApp.com.example.HotelApp.service;
+
+import HotelApp.com.example.HotelApp.model.RoomCalendar;
+import HotelApp.com.example.HotelApp.repository.BookingRepository;
+import HotelApp.com.example.HotelApp.repository.RoomCalendarRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The compensating updates used when a booking write fails: restore() puts released nights back, and the
+ * *OrRebuild variants never throw over the original failure, dropping the calendar for a rebuild instead.
+ */
+class RoomCalendarServiceTest {
+
+    private static final String ROOM_ID = "room-1";
+
+    private final RoomCalendarRepository roomCalendarRepository = mock(RoomCalendarRepository.class);
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final RoomCalendarService service = new RoomCalendarService(roomCalendarRepository, bookingRepository);
+
+    @Test
+    void restorePutsReleasedNightsBack() {
+        LocalDate from = LocalDate.now().plusDays(3);
+        RoomCalendar calendar = calendar();
+        when(roomCalendarRepository.findById(ROOM_ID)).thenReturn(Optional.of(calendar));
+        when(roomCalendarRepository.save(any())).thenAnswer(call -> call.getArgument(0));
+
+        service.release(ROOM_ID, from, from.plusDays(1));
+        assertThat(booked(from)).doesNotContain(from.getDayOfMonth());
+
+        service.restore(ROOM_ID, from, from.plusDays(1));
+        assertThat(booked(from)).contains(from.getDayOfMonth());
+    }
+
+    @Test
+    void releaseThatKeepsLosingDropsTheCalendarInsteadOfThrowing() {
+        when(roomCalendarRepository.findById(ROOM_ID)).thenReturn(Optional.of(calendar()));
+        when(roomCalendarRepository.save(any())).thenThrow(new OptimisticLockingFailureException("hot room"));
+
+        LocalDate from = LocalDate.now().plusDays(3);
+        assertThatCode(() -> service.releaseOrRebuild(ROOM_ID, from, from.plusDays(1))).doesNotThrowAnyException();
+        verify(roomCalendarRepository).deleteById(ROOM_ID);
+    }
+
+    @Test
+    void successfulRestoreKeepsTheCalendar() {
+        when(roomCalendarRepository.findById(ROOM_ID)).thenReturn(Optional.of(calendar()));
+        when(roomCalendarRepository.save(any())).thenAnswer(call -> call.getArgument(0));
+
+        LocalDate from = LocalDate.now().minusDays(2); // a stay already under way can still be restored
+        service.restoreOrRebuild(ROOM_ID, from, from.plusDays(4));
+        verify(roomCalendarRepository, never()).deleteById(any());
+    }
+
+    private static RoomCalendar calendar() {
+        long today = LocalDate.now().toEpochDay();
+        RoomCalendar calendar = new RoomCalendar(ROOM_ID, RoomCalendarService.alignedBase(today),
+                new long[RoomCalendarService.WORDS], 1L);
+        int bit = (int) (LocalDate.now().plusDays(3).toEpochDay() - calendar.getBaseDay());
+        RoomCalendarService.setRange(calendar.getDays(), bit, bit + 1);
+        return calendar;
+    }
+
+    private List<Integer> booked(LocalDate day) {
+        return service.getMonth(ROOM_ID, YearMonth.from(day)).getBookedDays();
+    }
+}
@@ -0,0 +1,114 @@
+package HotelApp.com.example.HotelApp.service;
+
+import HotelApp.com.example.HotelApp.dto.RoomResponseDTO;
+import HotelApp.com.example.HotelApp.model.Room;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Rooms written while reload() streams the collection must survive the rebuild from the snapshot, and the price
+ * column must answer ranges in price order, leaving out rooms without a price.
+ */
+class RoomSearchIndexTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final RoomSearchIndex index = new RoomSearchIndex(mongoTemplate);
+
+    @Test
+    void writesDuringReloadSurviveTheRebuild() {
+        Room kept = room("r1", 100d);
+        Room deletedMidStream = room("r2", 200d);
+        Room addedMidStream = room("r3", 300d);
+        Room repricedMidStream = room("r1", 150d);
+
+        // The cursor had read r2 before it was deleted, r3 is created after it passed, and r1 is repriced after it was read
+        when(mongoTemplate.stream(any(Query.class), eq(Room.class))).thenReturn(Stream.of(kept, deletedMidStream)
+                .peek(r -> {
+                    if (r == deletedMidStream) {
+                        index.remove("r2");
+                        index.index(addedMidStream);
+                        index.index(repricedMidStream);
+                    }
+                }));
+
+        index.reload();
+
+        assertThat(ids(index.search(null, null, null, null, false, 10))).containsExactlyInAnyOrder("r1", "r3");
+        assertThat(ids(index.search(null, null, 120d, 160d, false, 10))).containsExactly("r1");
+
+        // Writes after the reload are not logged for a replay
+        index.remove("r3");
+        when(mongoTemplate.stream(any(Query.class), eq(Room.class))).thenReturn(Stream.of(kept, addedMidStream));
+        index.reload();
+        assertThat(ids(index.search(null, null, null, null, false, 10))).containsExactlyInAnyOrder("r1", "r3");
+    }
+
+    @Test
+    void failedReloadKeepsTheIndexAndStopsLogging() {
+        index.index(room("r1", 100d));
+        when(mongoTemplate.stream(any(Query.class), eq(Room.class))).thenThrow(new IllegalStateException("no Mongo"));
+
+        try {
+            index.reload();
+        } catch (IllegalStateException expected) {
+            // surfaced to the scheduler as before
+        }
+
+        assertThat(ids(index.search(null, null, null, null, false, 10))).containsExactly("r1");
+        index.index(room("r2", 50d));
+        assertThat(ids(index.search(null, null, 0d, 60d, false, 10))).containsExactly("r2");
+    }
+
+    @Test
+    void priceRangesFollowPriceOrderIncludingTies() {
+        when(mongoTemplate.stream(any(Query.class), eq(Room.class))).thenReturn(Stream.of(
+                room("a", 300d), room("b", 100d), room("c", 200d), room("d", 100d), room("e", null), room("f", 200d)));
+        index.reload();
+
+        assertThat(ids(index.search(null, null, 100d, 200d, false, 10))).containsExactlyInAnyOrder("b", "c", "d", "f");
+        assertThat(ids(index.search(null, null, 250d, null, false, 10))).containsExactly("a");
+        assertThat(ids(index.search(null, null, 101d, 199d, false, 10))).isEmpty();
+    }
+
+    @Test
+    void unpricedRoomsMatchOnlyWithoutAPriceBound() {
+        when(mongoTemplate.stream(any(Query.class), eq(Room.class))).thenReturn(Stream.of(
+                room("a", 100d), room("b", null), room("c", Double.NaN)));
+        index.reload();
+
+        assertThat(ids(index.search(null, null, null, 100d, false, 10))).containsExactly("a");
+        assertThat(ids(index.search(null, null, 0d, null, false, 10))).containsExactly("a");
+        assertThat(ids(index.search(null, null, null, null, false, 10))).containsExactlyInAnyOrder("a", "b", "c");
+
+        // Repricing moves a room into the column, and the next bounded search sees it
+        index.index(room("b", 80d));
+        assertThat(ids(index.search(null, null, null, 100d, false, 10))).containsExactlyInAnyOrder("a", "b");
+        index.index(room("a", null));
+        assertThat(ids(index.search(null, null, null, 100d, false, 10))).containsExactly("b");
+    }
+
+    private static List<String> ids(List<RoomResponseDTO> rooms) {
+        return rooms.stream().map(RoomResponseDTO::getId).toList();
+    }
+
+    private static Room room(String id, Double price) {
+        Room room = new Room();
+        room.setId(id);
+        room.setHotelName("Hotel " + id);
+        room.setLocation("Goa");
+        room.setRoomType("Deluxe");
+        room.setPrice(price);
+        room.setAvailable(true);
+        return room;
+    }
+}